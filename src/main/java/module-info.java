@@ -6,6 +6,9 @@ module net.pincette.json {
   requires com.schibsted.spt.data.jslt;
   requires java.logging;
   requires com.fasterxml.jackson.dataformat.yaml;
+  requires com.fasterxml.jackson.dataformat.smile;
+  requires com.fasterxml.jackson.dataformat.cbor;
   exports net.pincette.json;
   exports net.pincette.json.filter;
+  exports net.pincette.json.value;
 }
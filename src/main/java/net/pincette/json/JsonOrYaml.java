@@ -1,17 +1,23 @@
 package net.pincette.json;
 
-import static com.fasterxml.jackson.dataformat.yaml.YAMLFactory.builder;
-import static com.fasterxml.jackson.dataformat.yaml.YAMLGenerator.Feature.LITERAL_BLOCK_STYLE;
 import static java.util.Arrays.stream;
 import static javax.json.stream.JsonParser.Event.START_OBJECT;
 import static net.pincette.json.JsonUtil.createReader;
 import static net.pincette.json.JsonUtil.createWriter;
+import static net.pincette.json.filter.JacksonFactories.cborFactory;
+import static net.pincette.json.filter.JacksonFactories.detect;
+import static net.pincette.json.filter.JacksonFactories.jsonFactory;
+import static net.pincette.json.filter.JacksonFactories.smileFactory;
+import static net.pincette.json.filter.JacksonFactories.yamlFactory;
 import static net.pincette.util.Util.tryToDoWithRethrow;
 import static net.pincette.util.Util.tryToGetWithRethrow;
 
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Optional;
@@ -23,14 +29,14 @@ import net.pincette.json.filter.JacksonParser;
 import net.pincette.json.filter.JsonParserWrapper;
 
 /**
- * Convenience methods to read and write YAML or JSON for situations where both are supported.
+ * Convenience methods to read and write YAML or JSON for situations where both are supported. The
+ * binary formats Smile and CBOR are also supported. They go through the Jackson bridge, so the
+ * result is the same <code>javax.json</code> structure.
  *
  * @author Werner Donn\u00e9
  * @since 1.6
  */
 public class JsonOrYaml {
-  private static final YAMLFactory factory = builder().build().enable(LITERAL_BLOCK_STYLE);
-
   private JsonOrYaml() {}
 
   private static JsonStructure get(final JsonParser parser) {
@@ -41,7 +47,8 @@ public class JsonOrYaml {
     return Optional.of(new File(filename))
         .filter(File::exists)
         .map(Optional::of)
-        .orElseGet(() -> getFile(filename, new String[] {"yml", "yaml", "json"}));
+        .orElseGet(
+            () -> getFile(filename, new String[] {"yml", "yaml", "json", "smile", "sml", "cbor"}));
   }
 
   private static Optional<File> getFile(final String filename, final String[] extensions) {
@@ -51,9 +58,13 @@ public class JsonOrYaml {
         .findFirst();
   }
 
+  private static boolean hasExtension(final File file, final String... extensions) {
+    return stream(extensions).anyMatch(extension -> file.getName().endsWith("." + extension));
+  }
+
   /**
-   * Reads JSON or YAML. If the file doesn't exist, the extensions ".yml", ".yaml" and ".json" are
-   * tried.
+   * Reads JSON, YAML, Smile or CBOR. If the file doesn't exist, the extensions ".yml", ".yaml",
+   * ".json", ".smile", ".sml" and ".cbor" are tried.
    *
    * @param filename the given filename.
    * @return The contents of the file as a JSON structure.
@@ -63,38 +74,159 @@ public class JsonOrYaml {
   }
 
   /**
-   * Reads JSON or YAML, depending on the extension of the filename. If it is ".yml" or ".yaml" the
-   * file will be read as YAML and as JSON otherwise.
+   * Reads JSON, YAML, Smile or CBOR, depending on the extension of the filename. If it is ".yml" or
+   * ".yaml" the file will be read as YAML. With ".smile" or ".sml" it is read as Smile and with
+   * ".cbor" as CBOR. Otherwise, the format is detected with the first bytes of the file.
    *
    * @param file the given file.
    * @return The contents of the file as a JSON structure.
    */
   public static Optional<JsonStructure> read(final File file) {
+    return tryToGetWithRethrow(() -> new FileInputStream(file), in -> read(file, in).orElse(null));
+  }
+
+  private static Optional<JsonStructure> read(final File file, final InputStream in) {
+    if (hasExtension(file, "yaml", "yml")) {
+      return readYaml(in);
+    }
+
+    if (hasExtension(file, "smile", "sml")) {
+      return readSmile(in);
+    }
+
+    return hasExtension(file, "cbor") ? readCbor(in) : read(in);
+  }
+
+  /**
+   * Reads JSON, Smile or CBOR. The format is detected with the first bytes. YAML is not detected.
+   *
+   * @param in the input stream. If it doesn't support <code>mark</code> it will be buffered.
+   * @return The JSON structure.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> read(final InputStream in) {
+    final InputStream marked = in.markSupported() ? in : new BufferedInputStream(in);
+    final JsonFactory factory = detect(marked);
+
+    return factory == jsonFactory() ? readJson(marked) : read(marked, factory);
+  }
+
+  private static Optional<JsonStructure> read(final InputStream in, final JsonFactory factory) {
     return tryToGetWithRethrow(
-        () -> new FileReader(file),
-        reader ->
-            file.getName().endsWith(".yaml") || file.getName().endsWith(".yml")
-                ? readYaml(reader).orElse(null)
-                : readJson(reader).orElse(null));
+        () -> new JsonParserWrapper(JacksonParser.create(in, factory)), JsonOrYaml::get);
+  }
+
+  /**
+   * Reads CBOR.
+   *
+   * @param in the input stream.
+   * @return The JSON structure.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> readCbor(final InputStream in) {
+    return read(in, cborFactory());
+  }
+
+  /**
+   * Reads JSON directly from bytes. The encoding is detected.
+   *
+   * @param in the input stream.
+   * @return The JSON structure.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> readJson(final InputStream in) {
+    return tryToGetWithRethrow(() -> createReader(in), JsonReader::read);
   }
 
   public static Optional<JsonStructure> readJson(final Reader reader) {
     return tryToGetWithRethrow(() -> createReader(reader), JsonReader::read);
   }
 
+  /**
+   * Reads Smile.
+   *
+   * @param in the input stream.
+   * @return The JSON structure.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> readSmile(final InputStream in) {
+    return read(in, smileFactory());
+  }
+
+  /**
+   * Reads YAML directly from bytes. The encoding is detected.
+   *
+   * @param in the input stream.
+   * @return The JSON structure.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> readYaml(final InputStream in) {
+    return read(in, yamlFactory());
+  }
+
   public static Optional<JsonStructure> readYaml(final Reader reader) {
     return tryToGetWithRethrow(
-        () -> new JsonParserWrapper(new JacksonParser(factory.createParser(reader))),
+        () -> new JsonParserWrapper(new JacksonParser(yamlFactory().createParser(reader))),
         JsonOrYaml::get);
   }
 
+  private static void write(
+      final JsonStructure json, final OutputStream out, final JsonFactory factory) {
+    tryToDoWithRethrow(
+        () -> JacksonGenerator.create(out, factory), generator -> generator.write(json));
+  }
+
+  /**
+   * Writes CBOR.
+   *
+   * @param json the JSON structure.
+   * @param out the output stream.
+   * @since 2.2
+   */
+  public static void writeCbor(final JsonStructure json, final OutputStream out) {
+    write(json, out, cborFactory());
+  }
+
+  /**
+   * Writes JSON as UTF-8 directly to bytes.
+   *
+   * @param json the JSON structure.
+   * @param out the output stream.
+   * @since 2.2
+   */
+  public static void writeJson(final JsonStructure json, final OutputStream out) {
+    tryToDoWithRethrow(() -> createWriter(out), w -> w.write(json));
+  }
+
   public static void writeJson(final JsonStructure json, final Writer writer) {
     tryToDoWithRethrow(() -> createWriter(writer), w -> w.write(json));
   }
 
+  /**
+   * Writes Smile, including the header, which makes it detectable.
+   *
+   * @param json the JSON structure.
+   * @param out the output stream.
+   * @since 2.2
+   */
+  public static void writeSmile(final JsonStructure json, final OutputStream out) {
+    write(json, out, smileFactory());
+  }
+
+  /**
+   * Writes YAML as UTF-8 directly to bytes.
+   *
+   * @param json the JSON structure.
+   * @param out the output stream.
+   * @since 2.2
+   */
+  public static void writeYaml(final JsonStructure json, final OutputStream out) {
+    write(json, out, yamlFactory());
+  }
+
   public static void writeYaml(final JsonStructure json, final Writer writer) {
     tryToDoWithRethrow(
-        () -> new JacksonGenerator(factory.createGenerator(writer)),
+        () -> new JacksonGenerator(yamlFactory().createGenerator(writer)),
         generator -> generator.write(json));
   }
 }
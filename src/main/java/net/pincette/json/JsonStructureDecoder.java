@@ -0,0 +1,233 @@
+package net.pincette.json;
+
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static net.pincette.json.filter.JacksonFactories.jsonFactory;
+import static net.pincette.json.filter.Util.writeEvent;
+import static net.pincette.util.Util.tryToDoRethrow;
+import static net.pincette.util.Util.tryToGetRethrow;
+
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Flow.Processor;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import javax.json.JsonStructure;
+import javax.json.stream.JsonParser.Event;
+import net.pincette.json.filter.JacksonParser;
+import net.pincette.json.filter.JsonTreeGenerator;
+
+/**
+ * A non-blocking decoder for a stream of unrelated JSON objects and arrays. The UTF-8 encoded bytes
+ * arrive as <code>ByteBuffer</code> chunks, either from an upstream publisher or through the <code>
+ * feed</code> method. The chunks are fed to a Jackson non-blocking parser and every complete
+ * structure is published downstream. Scalar values at the top level are skipped.
+ *
+ * <p>With an upstream publisher, the next chunk is requested only when there is downstream demand
+ * and all structures of the previous chunk have been delivered. When chunks are pushed with <code>
+ * feed</code>, the structures for which there is no demand yet are buffered. There is only one
+ * subscriber.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class JsonStructureDecoder implements Processor<ByteBuffer, JsonStructure> {
+  private final Deque<JsonStructure> decoded = new ArrayDeque<>();
+  private final ByteBufferFeeder feeder;
+  private final JacksonParser parser;
+  private final JsonTreeGenerator builder = new JsonTreeGenerator();
+  private boolean chunkRequested;
+  private boolean completed;
+  private int depth;
+  private boolean draining;
+  private Throwable error;
+  private long requested;
+  private Subscriber<? super JsonStructure> subscriber;
+  private Subscription upstream;
+
+  public JsonStructureDecoder() {
+    final com.fasterxml.jackson.core.JsonParser nonBlocking =
+        tryToGetRethrow(jsonFactory()::createNonBlockingByteBufferParser).orElseThrow();
+
+    feeder = (ByteBufferFeeder) nonBlocking.getNonBlockingInputFeeder();
+    parser = new JacksonParser(nonBlocking);
+  }
+
+  /**
+   * Signals that no more chunks will be fed. This is the push variant of <code>onComplete</code>.
+   */
+  public void complete() {
+    onComplete();
+  }
+
+  private void decode() {
+    while (parser.hasNext()) {
+      final Event event = parser.next();
+
+      if (depth > 0 || event == START_OBJECT || event == START_ARRAY) {
+        writeEvent(event, parser, builder);
+
+        if (event == START_OBJECT || event == START_ARRAY) {
+          ++depth;
+        } else if ((event == END_OBJECT || event == END_ARRAY) && --depth == 0) {
+          decoded.add(builder.build());
+        }
+      }
+    }
+  }
+
+  private synchronized void drain() {
+    if (draining || subscriber == null) {
+      return;
+    }
+
+    draining = true;
+
+    try {
+      boolean again = true;
+
+      while (again) {
+        again = false;
+
+        while (requested > 0 && !decoded.isEmpty()) {
+          --requested;
+          subscriber.onNext(decoded.poll());
+        }
+
+        if (decoded.isEmpty() && (completed || error != null)) {
+          terminate();
+        } else if (requested > 0
+            && decoded.isEmpty()
+            && !chunkRequested
+            && upstream != null
+            && subscriber != null) {
+          chunkRequested = true;
+          upstream.request(1);
+          again = true;
+        }
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  /**
+   * Decodes a chunk. The decoder doesn't keep a reference to the chunk after the call.
+   *
+   * @param chunk the chunk of UTF-8 encoded bytes.
+   */
+  public synchronized void feed(final ByteBuffer chunk) {
+    try {
+      tryToDoRethrow(() -> feeder.feedInput(chunk));
+      decode();
+    } catch (Exception e) {
+      error = e;
+
+      if (upstream != null) {
+        upstream.cancel();
+      }
+    }
+
+    drain();
+  }
+
+  public synchronized void onComplete() {
+    if (!completed && error == null) {
+      feeder.endOfInput();
+
+      try {
+        decode();
+      } catch (Exception e) {
+        error = e;
+      }
+
+      completed = true;
+      drain();
+    }
+  }
+
+  public synchronized void onError(final Throwable throwable) {
+    error = throwable;
+    drain();
+  }
+
+  public synchronized void onNext(final ByteBuffer chunk) {
+    chunkRequested = false;
+    feed(chunk);
+  }
+
+  public synchronized void onSubscribe(final Subscription subscription) {
+    if (upstream != null) {
+      subscription.cancel();
+    } else {
+      upstream = subscription;
+      drain();
+    }
+  }
+
+  public synchronized void subscribe(final Subscriber<? super JsonStructure> subscriber) {
+    if (this.subscriber != null) {
+      subscriber.onSubscribe(new Cancelled());
+      subscriber.onError(new IllegalStateException("There is already a subscriber"));
+    } else {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(new Demand());
+    }
+  }
+
+  private void terminate() {
+    final Subscriber<? super JsonStructure> s = subscriber;
+
+    subscriber = null;
+
+    if (error != null) {
+      s.onError(error);
+    } else {
+      s.onComplete();
+    }
+  }
+
+  private static class Cancelled implements Subscription {
+    public void cancel() {
+      // Nothing to do.
+    }
+
+    public void request(final long n) {
+      // Nothing to do.
+    }
+  }
+
+  private class Demand implements Subscription {
+    public void cancel() {
+      synchronized (JsonStructureDecoder.this) {
+        subscriber = null;
+        decoded.clear();
+
+        if (upstream != null) {
+          upstream.cancel();
+        }
+      }
+    }
+
+    public void request(final long n) {
+      synchronized (JsonStructureDecoder.this) {
+        if (n <= 0) {
+          error = new IllegalArgumentException("The requested number should be positive");
+          decoded.clear();
+
+          if (upstream != null) {
+            upstream.cancel();
+          }
+        } else {
+          requested = requested + n < 0 ? Long.MAX_VALUE : (requested + n);
+        }
+
+        drain();
+      }
+    }
+  }
+}
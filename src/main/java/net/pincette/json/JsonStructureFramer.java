@@ -0,0 +1,145 @@
+package net.pincette.json;
+
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Optional.empty;
+import static net.pincette.util.Util.tryToGetRethrow;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import javax.json.JsonStructure;
+
+/**
+ * Cuts a UTF-8 encoded stream of unrelated JSON objects and arrays into byte slices that each
+ * contain exactly one structure. The bytes are scanned in large buffers. Braces and brackets in
+ * string literals are not counted. Everything between the structures, such as white space, commas
+ * or newlines, is skipped.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class JsonStructureFramer {
+  private static final int DEFAULT_BUFFER_SIZE = 0x10000;
+
+  private final InputStream in;
+  private final StructureScanner scanner = new StructureScanner();
+  private byte[] buffer;
+  private int end;
+  private int position;
+
+  public JsonStructureFramer(final InputStream in) {
+    this(in, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a framer with an initial buffer size. The buffer grows when a structure doesn't fit in
+   * it.
+   *
+   * @param in the UTF-8 encoded input stream.
+   * @param bufferSize the initial buffer size.
+   */
+  public JsonStructureFramer(final InputStream in, final int bufferSize) {
+    this.in = in;
+    this.buffer = new byte[bufferSize];
+  }
+
+  private boolean fill() {
+    final int start = scanner.start;
+
+    if (!scanner.inStructure()) {
+      end = 0;
+      position = 0;
+    } else if (start > 0) {
+      arraycopy(buffer, start, buffer, 0, end - start);
+      end -= start;
+      position -= start;
+      scanner.start = 0;
+    }
+
+    if (end == buffer.length) {
+      buffer = copyOf(buffer, buffer.length * 2);
+    }
+
+    final int read = tryToGetRethrow(() -> in.read(buffer, end, buffer.length - end)).orElse(-1);
+
+    if (read == -1) {
+      return false;
+    }
+
+    end += read;
+
+    return true;
+  }
+
+  /**
+   * Returns the next structure as a slice. The slice refers to the internal buffer of the framer,
+   * so it is only valid until the next call. Use <code>Slice.copy</code> to keep it longer.
+   *
+   * @return The slice, which is empty when the stream is exhausted. An incomplete structure at the
+   *     end of the stream is dropped.
+   */
+  public Optional<Slice> next() {
+    int stop;
+
+    while ((stop = scan()) == -1) {
+      if (!fill()) {
+        return empty();
+      }
+    }
+
+    final Slice slice = new Slice(buffer, scanner.start, stop - scanner.start);
+
+    scanner.start = -1;
+
+    return Optional.of(slice);
+  }
+
+  private int scan() {
+    final int stop = scanner.scan(buffer, position, end);
+
+    position = stop != -1 ? stop : end;
+
+    return stop;
+  }
+
+  /**
+   * A byte range that contains exactly one JSON object or array.
+   *
+   * @since 2.2
+   */
+  public static class Slice {
+    public final byte[] bytes;
+    public final int length;
+    public final int offset;
+
+    public Slice(final byte[] bytes, final int offset, final int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    /**
+     * Returns a slice with its own copy of the bytes.
+     *
+     * @return The new slice.
+     */
+    public Slice copy() {
+      return new Slice(copyOfRange(bytes, offset, offset + length), 0, length);
+    }
+
+    public InputStream inputStream() {
+      return new ByteArrayInputStream(bytes, offset, length);
+    }
+
+    /**
+     * Parses the slice without first converting it to a string.
+     *
+     * @return The structure, which is empty if the slice doesn't contain valid JSON.
+     */
+    public Optional<JsonStructure> parse() {
+      return JsonUtil.from(bytes, offset, length);
+    }
+  }
+}
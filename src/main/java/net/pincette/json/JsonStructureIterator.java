@@ -1,68 +1,45 @@
 package net.pincette.json;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.Optional.empty;
-import static net.pincette.util.Util.tryToGetRethrow;
-
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 import javax.json.JsonStructure;
+import net.pincette.json.JsonStructureFramer.Slice;
 
 /**
  * Parses a stream of unrelated JSON objects and arrays that follow one another on an input stream.
+ * The stream should be UTF-8 encoded. Each structure is parsed directly from the bytes that were
+ * delimited by a <code>JsonStructureFramer</code>.
  *
  * @author Werner Donn\u00e9
  * @since 1.3
  * @see net.pincette.util.StreamUtil#stream
  */
 public class JsonStructureIterator implements Iterator<JsonStructure> {
-  final Reader reader;
+  final JsonStructureFramer framer;
   JsonStructure next;
 
   public JsonStructureIterator(final InputStream in) {
-    this.reader = new BufferedReader(new InputStreamReader(in, UTF_8));
-  }
-
-  private static Optional<String> readStructure(final Reader reader) {
-    final StringBuilder builder = new StringBuilder(1024);
-    final Deque<Integer> stack = new ArrayDeque<>();
-    int c;
-
-    while ((c = tryToGetRethrow(reader::read).orElse(-1)) != -1) {
-      builder.append((char) c);
-
-      if (c == '{' || c == '[') {
-        stack.push(c);
-      } else if (c == '}' || c == ']') {
-        stack.pop();
-
-        if (stack.isEmpty()) {
-          return Optional.of(builder.toString());
-        }
-      }
-    }
-
-    return empty();
+    this.framer = new JsonStructureFramer(in);
   }
 
   public boolean hasNext() {
-    next = readStructure(reader).flatMap(JsonUtil::from).orElse(null);
+    if (next == null) {
+      next = framer.next().flatMap(Slice::parse).orElse(null);
+    }
 
     return next != null;
   }
 
   public JsonStructure next() {
-    if (next == null) {
+    if (!hasNext()) {
       throw new NoSuchElementException();
     }
 
-    return next;
+    final JsonStructure result = next;
+
+    next = null;
+
+    return result;
   }
 }
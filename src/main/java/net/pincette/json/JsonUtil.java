@@ -80,6 +80,10 @@ import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParserFactory;
 import javax.xml.stream.XMLEventWriter;
 import net.pincette.function.SideEffect;
+import net.pincette.json.value.CompactProvider;
+import net.pincette.json.value.LazyJson;
+import net.pincette.json.value.PersistentArray;
+import net.pincette.json.value.PersistentObject;
 import net.pincette.util.Pair;
 import net.pincette.xml.JsonEventReader;
 
@@ -94,7 +98,8 @@ public class JsonUtil {
           value.getValueType() == JsonValue.ValueType.NUMBER
               ? asNumber(value).longValue()
               : toString(value);
-  private static final JsonProvider provider = provider();
+  private static final JsonProvider provider =
+      Boolean.getBoolean(CompactProvider.PROPERTY) ? new CompactProvider(provider()) : provider();
 
   private JsonUtil() {}
 
@@ -118,7 +123,13 @@ public class JsonUtil {
    * @return The new object.
    */
   public static JsonObject add(final JsonObject obj, final String path, final JsonValue value) {
-    return createPointer(toJsonPointer(path)).add(obj, value).asJsonObject();
+    final String pointer = toJsonPointer(path);
+
+    return Optional.of(obj)
+        .filter(PersistentObject.class::isInstance)
+        .flatMap(o -> with((PersistentObject) o, getPathSegments(pointer), 0, value, false))
+        .map(JsonObject.class::cast)
+        .orElseGet(() -> createPointer(pointer).add(obj, value).asJsonObject());
   }
 
   /**
@@ -135,7 +146,7 @@ public class JsonUtil {
   }
 
   public static JsonObject add(final JsonObject obj, final UnaryOperator<JsonObjectBuilder> add) {
-    return add.apply(copy(obj, createObjectBuilder())).build();
+    return add.apply(editor(obj)).build();
   }
 
   public static JsonObject add(final JsonObject obj1, final JsonObject obj2) {
@@ -171,10 +182,7 @@ public class JsonUtil {
    */
   public static JsonObject add(final JsonObject obj, Collection<Pair<String, Object>> values) {
     return values.stream()
-        .reduce(
-            copy(obj, createObjectBuilder()),
-            (b, p) -> addJsonField(b, p.first, p.second),
-            (b1, b2) -> b1)
+        .reduce(editor(obj), (b, p) -> addJsonField(b, p.first, p.second), (b1, b2) -> b1)
         .build();
   }
 
@@ -419,6 +427,28 @@ public class JsonUtil {
             .orElseGet(() -> provider.createValue(value.toString()));
   }
 
+  /**
+   * Creates a number without boxing the value first.
+   *
+   * @param value the given value.
+   * @return The JSON number.
+   * @since 2.2
+   */
+  public static JsonValue createValue(final int value) {
+    return provider.createValue(value);
+  }
+
+  /**
+   * Creates a number without boxing the value first.
+   *
+   * @param value the given value.
+   * @return The JSON number.
+   * @since 2.2
+   */
+  public static JsonValue createValue(final long value) {
+    return provider.createValue(value);
+  }
+
   public static JsonWriter createWriter(final OutputStream out) {
     return provider.createWriter(out);
   }
@@ -435,6 +465,16 @@ public class JsonUtil {
     return Optional.of(value).filter(JsonUtil::isDouble).map(JsonUtil::asDouble);
   }
 
+  /**
+   * Returns a builder that starts with the fields of <code>obj</code>. For a persistent object it
+   * edits the object instead of copying it.
+   */
+  private static JsonObjectBuilder editor(final JsonObject obj) {
+    return obj instanceof PersistentObject persistent
+        ? persistent.toBuilder()
+        : copy(obj, createObjectBuilder());
+  }
+
   public static JsonArray emptyArray() {
     return createArrayBuilder().build();
   }
@@ -465,6 +505,39 @@ public class JsonUtil {
     return tryToGetSilent(() -> createReader(new StringReader(json)).read());
   }
 
+  /**
+   * Parses a UTF-8 encoded byte range directly, without converting it to a string first.
+   *
+   * @param json the buffer that contains the JSON text.
+   * @param offset the start of the range.
+   * @param length the length of the range.
+   * @return The parsed structure, which is empty when the range doesn't contain valid JSON.
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> from(
+      final byte[] json, final int offset, final int length) {
+    return tryToGetSilent(
+        () -> createReader(new ByteArrayInputStream(json, offset, length)).read());
+  }
+
+  /**
+   * Reads a UTF-8 encoded byte range as a structure that is a view on the buffer. The values are
+   * only decoded when they are accessed, which is cheaper when only a few of them are used. The
+   * buffer should not be changed anymore. Use <code>LazyJson.write</code> to write the result
+   * without re-encoding the unchanged parts.
+   *
+   * @param json the buffer that contains the JSON text.
+   * @param offset the start of the range.
+   * @param length the length of the range.
+   * @return The structure, which is empty when the range doesn't contain an object or an array.
+   * @see LazyJson
+   * @since 2.2
+   */
+  public static Optional<JsonStructure> fromLazy(
+      final byte[] json, final int offset, final int length) {
+    return tryToGetSilent(() -> LazyJson.read(json, offset, length));
+  }
+
   public static Optional<JsonArray> getArray(final JsonStructure json, final String jsonPointer) {
     return getValue(json, jsonPointer).filter(JsonUtil::isArray).map(JsonValue::asJsonArray);
   }
@@ -541,6 +614,38 @@ public class JsonUtil {
         .orElse("");
   }
 
+  /**
+   * Returns the provider that is used for everything. It is a <code>CompactProvider</code> when the
+   * system property <code>net.pincette.json.compact</code> is set to <code>true</code>.
+   *
+   * @return The provider.
+   * @since 2.2
+   */
+  public static JsonProvider getProvider() {
+    return provider;
+  }
+
+  /**
+   * Splits a JSON pointer or a dot-separated path into its segments. A path that is empty or that
+   * starts with a slash is a JSON pointer. Its segments are unescaped, so "~1" becomes "/" and "~0"
+   * becomes "~".
+   *
+   * @param path the JSON pointer or the dot-separated path.
+   * @return The segments, which are none for the empty path.
+   * @since 2.2
+   */
+  public static String[] getPathSegments(final String path) {
+    if (path.isEmpty()) {
+      return new String[0];
+    }
+
+    return path.charAt(0) == '/'
+        ? Arrays.stream(path.substring(1).split("/", -1))
+            .map(s -> s.replace("~1", "/").replace("~0", "~"))
+            .toArray(String[]::new)
+        : path.split("\\.");
+  }
+
   public static Optional<String> getString(final JsonStructure json, final String jsonPointer) {
     return getValue(json, jsonPointer).flatMap(JsonUtil::stringValue);
   }
@@ -709,10 +814,26 @@ public class JsonUtil {
   }
 
   public static JsonObject remove(final JsonObject obj, final Predicate<String> pred) {
-    return copy(obj, createObjectBuilder(), key -> !pred.test(key)).build();
+    return obj instanceof PersistentObject persistent
+        ? persistent.keySet().stream()
+            .filter(pred)
+            .reduce(persistent, PersistentObject::without, (o1, o2) -> o1)
+        : copy(obj, createObjectBuilder(), key -> !pred.test(key)).build();
   }
 
   public static JsonArray remove(final JsonArray array, final Predicate<JsonValue> pred) {
+    if (array instanceof PersistentArray persistent) {
+      PersistentArray result = persistent;
+
+      for (int i = persistent.size() - 1; i >= 0; --i) {
+        if (pred.test(persistent.get(i))) {
+          result = result.without(i);
+        }
+      }
+
+      return result;
+    }
+
     return copy(array, createArrayBuilder(), value -> !pred.test(value)).build();
   }
 
@@ -726,6 +847,10 @@ public class JsonUtil {
    * @since 1.3.10
    */
   public static JsonArray remove(final JsonArray array, final int position) {
+    if (position >= 0 && position < array.size() && array instanceof PersistentArray persistent) {
+      return persistent.without(position);
+    }
+
     return position < 0 || position >= array.size()
         ? array
         : from(
@@ -741,7 +866,7 @@ public class JsonUtil {
    * @return The new JSON object without the technical fields.
    */
   public static JsonObject removeTechnical(final JsonObject obj) {
-    return copy(obj, createObjectBuilder(), key -> !key.startsWith("_")).build();
+    return remove(obj, key -> key.startsWith("_"));
   }
 
   /**
@@ -754,7 +879,11 @@ public class JsonUtil {
    * @return The new object.
    */
   public static JsonObject set(final JsonObject obj, final String path, final JsonValue value) {
-    return transform(obj, setTransformer(path, value));
+    return Optional.of(obj)
+        .filter(PersistentObject.class::isInstance)
+        .flatMap(o -> with((PersistentObject) o, split(path, "."), 0, value, true))
+        .map(JsonObject.class::cast)
+        .orElseGet(() -> transform(obj, setTransformer(path, value)));
   }
 
   /**
@@ -783,6 +912,10 @@ public class JsonUtil {
    * @since 1.3.10
    */
   public static JsonArray set(final JsonArray array, final int position, final JsonValue value) {
+    if (position >= 0 && position <= array.size() && array instanceof PersistentArray persistent) {
+      return persistent.with(position, value);
+    }
+
     final Supplier<Stream<JsonValue>> secondPart =
         () ->
             position < array.size() ? array.subList(position + 1, array.size()).stream() : empty();
@@ -952,4 +1085,29 @@ public class JsonUtil {
         .map(ByteArrayInputStream::new)
         .orElse(null);
   }
+
+  /**
+   * Sets the field at the end of <code>path</code> through edits of persistent objects. Nested
+   * objects become persistent on the way.
+   *
+   * @return The new object, or empty when the path doesn't go through objects or when the field
+   *     should but doesn't exist.
+   */
+  private static Optional<PersistentObject> with(
+      final PersistentObject obj,
+      final String[] path,
+      final int index,
+      final JsonValue value,
+      final boolean existing) {
+    if (index == path.length - 1) {
+      return Optional.of(obj)
+          .filter(o -> !existing || o.containsKey(path[index]))
+          .map(o -> o.with(path[index], value));
+    }
+
+    return Optional.ofNullable(obj.get(path[index]))
+        .filter(JsonUtil::isObject)
+        .flatMap(v -> with(PersistentObject.of(v.asJsonObject()), path, index + 1, value, existing))
+        .map(o -> obj.with(path[index], o));
+  }
 }
@@ -0,0 +1,230 @@
+package net.pincette.json;
+
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static net.pincette.json.JsonUtil.createReader;
+import static net.pincette.util.Util.tryToDoRethrow;
+import static net.pincette.util.Util.tryToGetRethrow;
+import static net.pincette.util.Util.tryToGetSilent;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.json.JsonStructure;
+import net.pincette.io.ByteBufferInputStream;
+
+/**
+ * Parses a file with unrelated JSON objects and arrays that follow one another. The file is memory
+ * mapped in windows and each structure is parsed directly from the mapped bytes, so the file is not
+ * copied onto the heap first. The spliterator splits at structure boundaries, which makes <code>
+ * stream().parallel()</code> scale across cores.
+ *
+ * <p>When the file is newline-delimited, i.e. there is exactly one structure per line, a split
+ * point is found by looking for the first newline after the middle of the range. Otherwise, the
+ * first half of the range is scanned to find the first structure that ends after the middle. This
+ * is still much cheaper than parsing. Like with <code>JsonStructureIterator</code>, a range stops
+ * at the first structure that can't be parsed.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class MappedJsonStructureSpliterator implements Spliterator<JsonStructure> {
+  private static final int MAX_WINDOW = Integer.MAX_VALUE - 8;
+  private static final long MIN_SPLIT = 0x100000;
+  private static final int WINDOW = 0x4000000;
+
+  private final FileChannel channel;
+  private final long end;
+  private final boolean newlineDelimited;
+  private final int windowSize;
+  private long position;
+  private MappedByteBuffer window;
+  private long windowStart;
+
+  /**
+   * Creates a spliterator for the entire file. The channel should stay open while the spliterator
+   * is used.
+   *
+   * @param channel the channel of the UTF-8 encoded file.
+   * @param newlineDelimited indicates whether the file has exactly one structure per line.
+   */
+  public MappedJsonStructureSpliterator(final FileChannel channel, final boolean newlineDelimited) {
+    this(channel, newlineDelimited, WINDOW);
+  }
+
+  MappedJsonStructureSpliterator(
+      final FileChannel channel, final boolean newlineDelimited, final int windowSize) {
+    this(channel, newlineDelimited, windowSize, 0, tryToGetRethrow(channel::size).orElse(0L));
+  }
+
+  private MappedJsonStructureSpliterator(
+      final FileChannel channel,
+      final boolean newlineDelimited,
+      final int windowSize,
+      final long position,
+      final long end) {
+    this.channel = channel;
+    this.newlineDelimited = newlineDelimited;
+    this.windowSize = windowSize;
+    this.position = position;
+    this.end = end;
+  }
+
+  private static InputStream inputStream(final ByteBuffer buffer, final int start, final int stop) {
+    return new ByteBufferInputStream(List.of(buffer.duplicate().position(start).limit(stop)));
+  }
+
+  private static Optional<JsonStructure> parse(
+      final ByteBuffer buffer, final int start, final int stop) {
+    return tryToGetSilent(() -> createReader(inputStream(buffer, start, stop)).read());
+  }
+
+  /**
+   * Returns a sequential stream of the structures in the file. Call <code>parallel</code> on it to
+   * process the structures in parallel. The file is closed when the stream is closed.
+   *
+   * @param path the UTF-8 encoded file.
+   * @param newlineDelimited indicates whether the file has exactly one structure per line.
+   * @return The stream of structures.
+   */
+  public static Stream<JsonStructure> stream(final Path path, final boolean newlineDelimited) {
+    final FileChannel channel = tryToGetRethrow(() -> FileChannel.open(path, READ)).orElseThrow();
+
+    return StreamSupport.stream(
+            new MappedJsonStructureSpliterator(channel, newlineDelimited), false)
+        .onClose(() -> tryToDoRethrow(channel::close));
+  }
+
+  public int characteristics() {
+    return ORDERED | NONNULL | IMMUTABLE;
+  }
+
+  /**
+   * Returns the number of remaining bytes, which is an upper bound for the number of remaining
+   * structures.
+   *
+   * @return The estimated size.
+   */
+  public long estimateSize() {
+    return end - position;
+  }
+
+  private MappedByteBuffer map(final long start, final long size) {
+    windowStart = start;
+    window =
+        tryToGetRethrow(() -> channel.map(READ_ONLY, start, min(size, end - start))).orElse(null);
+
+    return window;
+  }
+
+  private long newlineAfter(final long from) {
+    for (long start = from; start < end; start += windowSize) {
+      final MappedByteBuffer buffer = map(start, windowSize);
+      final int limit = buffer.limit();
+
+      for (int i = 0; i < limit; ++i) {
+        if (buffer.get(i) == '\n') {
+          return start + i + 1;
+        }
+      }
+    }
+
+    return end;
+  }
+
+  private long structureEndAfter(final long from, final long atLeast) {
+    final StructureScanner scanner = new StructureScanner();
+
+    for (long start = from; start < end; start += windowSize) {
+      final MappedByteBuffer buffer = map(start, windowSize);
+      final int limit = buffer.limit();
+      int i = 0;
+      int stop;
+
+      while ((stop = scanner.scan(buffer, i, limit)) != -1) {
+        if (start + stop >= atLeast) {
+          return start + stop;
+        }
+
+        i = stop;
+      }
+    }
+
+    return end;
+  }
+
+  public boolean tryAdvance(final Consumer<? super JsonStructure> action) {
+    final StructureScanner scanner = new StructureScanner();
+    long size = windowSize;
+
+    while (position < end) {
+      if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+        map(position, size);
+      }
+
+      final int from = (int) (position - windowStart);
+      final int stop = scanner.scan(window, from, window.limit());
+
+      if (stop != -1) {
+        final Optional<JsonStructure> structure = parse(window, scanner.start, stop);
+
+        position = structure.isPresent() ? (windowStart + stop) : end;
+        structure.ifPresent(action);
+
+        return structure.isPresent();
+      }
+
+      if (windowStart + window.limit() >= end) {
+        position = end;
+      } else if (!scanner.inStructure()) {
+        position = windowStart + window.limit();
+      } else {
+        if (scanner.start == 0) {
+          if (size >= MAX_WINDOW) {
+            throw new IllegalStateException("Structure at " + position + " is too large");
+          }
+
+          size = min(size * 2, MAX_WINDOW);
+        }
+
+        position = windowStart + scanner.start;
+        scanner.reset();
+        map(position, size);
+      }
+    }
+
+    return false;
+  }
+
+  public Spliterator<JsonStructure> trySplit() {
+    if (end - position < MIN_SPLIT) {
+      return null;
+    }
+
+    final long middle = position + (end - position) / 2;
+    final long split =
+        newlineDelimited ? newlineAfter(middle) : structureEndAfter(position, middle);
+
+    window = null;
+
+    if (split <= position || split >= end) {
+      return null;
+    }
+
+    final Spliterator<JsonStructure> prefix =
+        new MappedJsonStructureSpliterator(channel, newlineDelimited, windowSize, position, split);
+
+    position = split;
+
+    return prefix;
+  }
+}
@@ -0,0 +1,122 @@
+package net.pincette.json;
+
+import static java.lang.Runtime.getRuntime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.ForkJoinPool.commonPool;
+import static net.pincette.util.Util.tryToGetRethrow;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.json.JsonStructure;
+import net.pincette.json.JsonStructureFramer.Slice;
+
+/**
+ * Parses a stream of unrelated JSON objects and arrays in parallel. A framer thread cuts the input
+ * into slices with a <code>JsonStructureFramer</code> and the slices are parsed by an executor. The
+ * structures are returned in the order in which they appear in the input stream. The number of
+ * slices that are framed, but not yet consumed, is bounded. Like with <code>JsonStructureIterator
+ * </code>, the iteration stops at the first structure that can't be parsed.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ * @see net.pincette.util.StreamUtil#stream
+ */
+public class ParallelJsonStructureIterator implements Iterator<JsonStructure>, AutoCloseable {
+  private static final CompletableFuture<Optional<JsonStructure>> END = completedFuture(null);
+
+  private final Thread framer;
+  private final BlockingQueue<CompletableFuture<Optional<JsonStructure>>> queue;
+  private volatile boolean ended;
+  private JsonStructure next;
+
+  /**
+   * Parses in the common fork/join pool with at most four slices per processor in flight.
+   *
+   * @param in the UTF-8 encoded input stream.
+   */
+  public ParallelJsonStructureIterator(final InputStream in) {
+    this(in, commonPool(), getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * Creates the iterator and starts the framer thread.
+   *
+   * @param in the UTF-8 encoded input stream.
+   * @param executor the executor that parses the slices.
+   * @param maxInFlight the maximum number of slices that have been framed but not yet consumed.
+   */
+  public ParallelJsonStructureIterator(
+      final InputStream in, final Executor executor, final int maxInFlight) {
+    queue = new ArrayBlockingQueue<>(maxInFlight);
+    framer = new Thread(() -> frame(new JsonStructureFramer(in), executor), "json-framer");
+    framer.setDaemon(true);
+    framer.start();
+  }
+
+  /** Stops the framer thread. The input stream is not closed. */
+  public void close() {
+    ended = true;
+    framer.interrupt();
+  }
+
+  private void frame(final JsonStructureFramer slices, final Executor executor) {
+    CompletableFuture<Optional<JsonStructure>> last = END;
+
+    try {
+      Optional<Slice> slice;
+
+      while ((slice = slices.next()).isPresent()) {
+        final Slice copy = slice.get().copy();
+
+        queue.put(supplyAsync(copy::parse, executor));
+      }
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+
+      return;
+    } catch (Exception e) {
+      last = failedFuture(e);
+    }
+
+    try {
+      queue.put(last);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+    }
+  }
+
+  public boolean hasNext() {
+    if (next == null && !ended) {
+      final Optional<JsonStructure> result = tryToGetRethrow(queue::take).orElse(END).join();
+
+      if (result == null || result.isEmpty()) {
+        close();
+      } else {
+        next = result.get();
+      }
+    }
+
+    return next != null;
+  }
+
+  public JsonStructure next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    final JsonStructure result = next;
+
+    next = null;
+
+    return result;
+  }
+}
@@ -0,0 +1,91 @@
+package net.pincette.json;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the end of JSON objects and arrays in UTF-8 encoded bytes. It keeps the nesting depth and
+ * the string and escape state, so a structure may be scanned in several parts. Braces and brackets
+ * in string literals are not counted. Since all bytes of multibyte UTF-8 sequences are larger than
+ * 0x7f, they can't be confused with the structural characters.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class StructureScanner {
+  private int depth;
+  private boolean escape;
+  private boolean inString;
+
+  /** The index where the last structure started or -1 if none has started yet. */
+  int start = -1;
+
+  boolean inStructure() {
+    return depth > 0;
+  }
+
+  void reset() {
+    depth = 0;
+    escape = false;
+    inString = false;
+    start = -1;
+  }
+
+  /**
+   * Scans the bytes from <code>from</code> up to <code>to</code>.
+   *
+   * @param bytes the bytes.
+   * @param from the first index to scan.
+   * @param to the index after the last one to scan.
+   * @return The index after the end of a structure or -1 if no structure ended.
+   */
+  int scan(final byte[] bytes, final int from, final int to) {
+    for (int i = from; i < to; ++i) {
+      if (scan(bytes[i], i)) {
+        return i + 1;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Scans the bytes from <code>from</code> up to <code>to</code>. The position of the buffer is not
+   * changed.
+   *
+   * @param bytes the bytes.
+   * @param from the first index to scan.
+   * @param to the index after the last one to scan.
+   * @return The index after the end of a structure or -1 if no structure ended.
+   */
+  int scan(final ByteBuffer bytes, final int from, final int to) {
+    for (int i = from; i < to; ++i) {
+      if (scan(bytes.get(i), i)) {
+        return i + 1;
+      }
+    }
+
+    return -1;
+  }
+
+  private boolean scan(final byte c, final int index) {
+    if (inString) {
+      if (escape) {
+        escape = false;
+      } else if (c == '\\') {
+        escape = true;
+      } else if (c == '"') {
+        inString = false;
+      }
+    } else if (c == '"') {
+      inString = true;
+    } else if (c == '{' || c == '[') {
+      if (depth++ == 0) {
+        start = index;
+      }
+    } else {
+      return (c == '}' || c == ']') && depth > 0 && --depth == 0;
+    }
+
+    return false;
+  }
+}
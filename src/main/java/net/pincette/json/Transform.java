@@ -227,7 +227,19 @@ public class Transform {
     return transform(obj, null, transformer, pathDelimiter);
   }
 
-  private static JsonObject transform(
+  /**
+   * Returns a new object where entries that <code>match</code> are transformed by <code>transformer
+   * </code>, as if the object were located at the path <code>parent</code>. If the latter is <code>
+   * null</code> or empty, the object is at the top.
+   *
+   * @param obj the given JSON object.
+   * @param parent the path of the object.
+   * @param transformer the applied transformer.
+   * @param pathDelimiter separates the path segments in the <code>JsonEntry</code> objects.
+   * @return The new JSON object.
+   * @since 2.2
+   */
+  public static JsonObject transform(
       final JsonObject obj,
       final String parent,
       final Transformer transformer,
@@ -13,7 +13,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
@@ -32,6 +31,7 @@ import net.pincette.util.Pair;
 public class Validate {
   public static final String ERROR = "_error";
   public static final String MESSAGE = "message";
+  public static final String PATH = "path";
   public static final String VALUE = "value";
 
   private Validate() {}
@@ -58,7 +58,15 @@ public class Validate {
     return allPaths(field, ".");
   }
 
-  private static Set<String> getMandatoryKeys(final Set<String> all, final String parent) {
+  /**
+   * Returns the mandatory fields that should appear directly in the object at <code>parent</code>.
+   *
+   * @param all the set of dot-separated mandatory fields.
+   * @param parent the dot-separated path of the object. It is <code>null</code> for the top-level.
+   * @return The names of the fields.
+   * @since 2.2
+   */
+  public static Set<String> getMandatoryKeys(final Set<String> all, final String parent) {
     return parent == null
         ? all.stream().filter(key -> key.indexOf('.') == -1).collect(toSet())
         : all.stream()
@@ -76,7 +84,16 @@ public class Validate {
         .orElse("Error");
   }
 
-  private static Validator getValidator(
+  /**
+   * Returns the validator for <code>field</code>. A validator for a field with fewer segments also
+   * applies to the field.
+   *
+   * @param validators maps dot-separated fields to validator functions.
+   * @param field the dot-separated path of the field.
+   * @return The validator or <code>null</code> if there is none.
+   * @since 2.2
+   */
+  public static Validator getValidator(
       final Map<String, Validator> validators, final String field) {
     return getFieldVariants(field)
         .filter(validators::containsKey)
@@ -247,23 +264,20 @@ public class Validate {
                 key -> {
                   final String field = parent != null ? (parent + "." + key) : key;
                   final JsonValue value = obj.get(key);
-                  final ValidationResult result =
-                      Optional.ofNullable(getValidator(validators, field))
-                          .map(validator -> validator.apply(context.with(field).with(value)))
-                          .orElse(new ValidationResult(true, null));
-                  final Supplier<String> message =
-                      () -> result.message != null ? result.message : getMessage(messages, field);
                   final Pair<? extends JsonValue, Boolean> entry =
-                      result.status
-                          ? validate(
-                              field,
-                              value,
-                              context,
-                              validators,
-                              messages,
-                              mandatory,
-                              missingMessage)
-                          : pair(createErrorObject(value, message.get()), true);
+                      validateField(field, value, context, validators, messages)
+                          .<Pair<? extends JsonValue, Boolean>>map(
+                              message -> pair(createErrorObject(value, message), true))
+                          .orElseGet(
+                              () ->
+                                  validate(
+                                      field,
+                                      value,
+                                      context,
+                                      validators,
+                                      messages,
+                                      mandatory,
+                                      missingMessage));
 
                   found.add(key);
                   builder.add(key, entry.first);
@@ -315,6 +329,69 @@ public class Validate {
     return pair(builder.build(), errors);
   }
 
+  /**
+   * Runs the validator for <code>field</code>, if there is one. Only the value of the field itself
+   * is validated, not the fields it may contain.
+   *
+   * @param field the dot-separated path of the field.
+   * @param value the value of the field.
+   * @param context the context information which is passed to the validator.
+   * @param validators maps dot-separated fields to validator functions.
+   * @param messages maps dot-separated fields to error messages.
+   * @return The error message if the value is not valid, an empty value otherwise.
+   * @since 2.2
+   */
+  public static Optional<String> validateField(
+      final String field,
+      final JsonValue value,
+      final ValidationContext context,
+      final Map<String, Validator> validators,
+      final Map<String, String> messages) {
+    return Optional.ofNullable(getValidator(validators, field))
+        .map(validator -> validator.apply(context.with(field).with(value)))
+        .filter(result -> !result.status)
+        .map(result -> result.message != null ? result.message : getMessage(messages, field));
+  }
+
+  /**
+   * An error that is found without building an annotated copy of the JSON.
+   *
+   * @since 2.2
+   */
+  public static class ValidationError {
+    public final String message;
+    public final String path;
+    public final JsonValue value;
+
+    /**
+     * Creates an error.
+     *
+     * @param path the dot-separated path of the field.
+     * @param message the error message.
+     * @param value the offending value. It is <code>null</code> for missing fields.
+     */
+    public ValidationError(final String path, final String message, final JsonValue value) {
+      this.path = path;
+      this.message = message;
+      this.value = value;
+    }
+
+    /**
+     * Returns the error as a JSON object in the same way as <code>createErrorObject</code> does,
+     * with the extra field "path".
+     *
+     * @return The error object.
+     */
+    public JsonObject toJson() {
+      return createObjectBuilder(createErrorObject(value, message)).add(PATH, path).build();
+    }
+
+    @Override
+    public String toString() {
+      return path + ": " + message;
+    }
+  }
+
   public interface Validator extends Function<ValidationContext, ValidationResult> {}
 
   public static class ValidationContext {
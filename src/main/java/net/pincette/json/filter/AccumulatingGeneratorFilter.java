@@ -1,13 +1,7 @@
 package net.pincette.json.filter;
 
-import static net.pincette.json.JsonUtil.createArrayBuilder;
-import static net.pincette.json.JsonUtil.createObjectBuilder;
-
 import java.util.ArrayDeque;
 import java.util.Deque;
-import javax.json.JsonArrayBuilder;
-import javax.json.JsonObjectBuilder;
-import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 
 /**
@@ -19,27 +13,25 @@ import javax.json.stream.JsonGenerator;
  */
 public class AccumulatingGeneratorFilter extends JsonGeneratorFilter {
   private final Deque<String> stack = new ArrayDeque<>();
-  private Object builder;
-
-  private JsonValue build() {
-    return builder instanceof JsonObjectBuilder jsonObjectBuilder
-        ? jsonObjectBuilder.build()
-        : ((JsonArrayBuilder) builder).build();
-  }
+  private final JsonTreeGenerator builder = new JsonTreeGenerator();
 
   @Override
   public JsonGenerator writeEnd() {
+    if (stack.isEmpty()) {
+      return super.writeEnd(); // The end of the structure that contains the accumulated ones.
+    }
+
     final String name = stack.pop();
 
+    super.writeEnd();
+
     if (stack.isEmpty()) {
       removeAccumulator();
       if ("".equals(name)) {
-        super.write(build());
+        super.write(builder.build());
       } else {
-        super.write(name, build());
+        super.write(name, builder.build());
       }
-    } else {
-      super.writeEnd();
     }
 
     return this;
@@ -53,8 +45,8 @@ public class AccumulatingGeneratorFilter extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartArray(final String name) {
     if (stack.isEmpty()) {
-      builder = createArrayBuilder();
-      insertAccumulator(new JsonBuilderGenerator((JsonArrayBuilder) builder));
+      insertAccumulator(builder);
+      super.writeStartArray();
     } else {
       if ("".equals(name)) {
         super.writeStartArray();
@@ -76,8 +68,8 @@ public class AccumulatingGeneratorFilter extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartObject(final String name) {
     if (stack.isEmpty()) {
-      builder = createObjectBuilder();
-      insertAccumulator(new JsonBuilderGenerator((JsonObjectBuilder) builder));
+      insertAccumulator(builder);
+      super.writeStartObject();
     } else {
       if ("".equals(name)) {
         super.writeStartObject();
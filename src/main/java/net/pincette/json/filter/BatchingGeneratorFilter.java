@@ -0,0 +1,226 @@
+package net.pincette.json.filter;
+
+import static java.lang.System.nanoTime;
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.JsonUtil.createArrayBuilder;
+import static net.pincette.json.filter.Util.estimateSize;
+
+import java.time.Duration;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * This filter collects the elements of the top-level array in batches. The write sequence to the
+ * next filter element will be <code>writeStartArray()</code>, a number of <code>write(JsonValue)
+ * </code> calls with a <code>JsonArray</code>, which is also a <code>List&lt;JsonValue&gt;</code>,
+ * and finally <code>writeEnd()</code>. A batch is written when it has reached the maximum number of
+ * elements, the maximum size or the maximum age. The last batch can be smaller. If the stream
+ * doesn't start with an array, everything passes through unchanged.
+ *
+ * <p>The size is estimated as the number of characters of the JSON text of the elements. The age is
+ * the time since the first element of the batch was added and it is only checked when an element is
+ * completed.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class BatchingGeneratorFilter extends JsonGeneratorFilter {
+  private final long maxAge;
+  private final long maxBytes;
+  private final int maxSize;
+  private JsonArrayBuilder batch;
+  private boolean batching;
+  private long bytes;
+  private int depth;
+  private JsonTreeGenerator element;
+  private int size;
+  private long started;
+
+  /**
+   * Creates a filter that only limits the number of elements in a batch.
+   *
+   * @param maxSize the maximum number of elements in a batch.
+   */
+  public BatchingGeneratorFilter(final int maxSize) {
+    this(maxSize, Long.MAX_VALUE, null);
+  }
+
+  /**
+   * Creates a filter that writes a batch when any of the limits is reached.
+   *
+   * @param maxSize the maximum number of elements in a batch.
+   * @param maxBytes the maximum estimated size of a batch.
+   * @param maxAge the maximum age of a batch. It may be <code>null</code>.
+   */
+  public BatchingGeneratorFilter(final int maxSize, final long maxBytes, final Duration maxAge) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("The batch size should be at least 1");
+    }
+
+    this.maxSize = maxSize;
+    this.maxBytes = maxBytes;
+    this.maxAge = maxAge != null ? maxAge.toNanos() : Long.MAX_VALUE;
+  }
+
+  private void add(final JsonValue value) {
+    if (size == 0) {
+      started = nanoTime();
+    }
+
+    batch.add(value);
+    ++size;
+    bytes += 1; // The comma.
+
+    if (size >= maxSize || bytes >= maxBytes || nanoTime() - started >= maxAge) {
+      emit();
+    }
+  }
+
+  private void count(final String name) {
+    if (inElement()) {
+      bytes += name.length() + 3L;
+    }
+  }
+
+  private void count(final JsonValue value) {
+    if (depth > 0 && batching) {
+      bytes += estimateSize(value);
+    }
+  }
+
+  private void emit() {
+    if (size > 0) {
+      super.write(batch.build());
+      batch = createArrayBuilder();
+      bytes = 0;
+      size = 0;
+    }
+  }
+
+  private boolean inElement() {
+    return batching && depth > 1;
+  }
+
+  private boolean isElement() {
+    return batching && depth == 1;
+  }
+
+  private void startElement() {
+    if (isElement()) {
+      element = new JsonTreeGenerator();
+      insertAccumulator(element);
+    }
+
+    if (batching) {
+      ++bytes;
+    }
+
+    ++depth;
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    count(value);
+
+    if (isElement()) {
+      add(value);
+    } else {
+      super.write(value);
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    count(name);
+    count(value);
+
+    return super.write(name, value);
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    --depth;
+
+    if (isElement()) {
+      ++bytes;
+      super.writeEnd();
+      removeAccumulator();
+      add(element.build());
+      element = null;
+    } else if (batching && depth == 0) {
+      emit();
+      batching = false;
+      batch = null;
+      super.writeEnd();
+    } else {
+      if (inElement()) {
+        ++bytes;
+      }
+
+      super.writeEnd();
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    count(name);
+
+    return super.writeKey(name);
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    return write(NULL);
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return write(name, NULL);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    if (depth == 0) {
+      batching = true;
+      batch = createArrayBuilder();
+      super.writeStartArray();
+      ++depth;
+    } else {
+      startElement();
+      super.writeStartArray();
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    count(name);
+    startElement();
+    super.writeStartArray(name);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    startElement();
+    super.writeStartObject();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    count(name);
+    startElement();
+    super.writeStartObject(name);
+
+    return this;
+  }
+}
@@ -0,0 +1,90 @@
+package net.pincette.json.filter;
+
+import static net.pincette.json.JsonUtil.transformFieldNames;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Transforms all field names with a function while the events stream through. This is the streaming
+ * variant of <code>JsonUtil.transformFieldNames</code>. Objects and arrays that are written as a
+ * whole <code>JsonValue</code> are transformed with that method.
+ *
+ * <p>Documents tend to repeat the same field names, so the results of the function can be kept in a
+ * cache. When it is full, the least recently used name is evicted.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class FieldNameGenerator extends JsonGeneratorFilter {
+  private final UnaryOperator<String> op;
+
+  /**
+   * Creates a filter without a cache.
+   *
+   * @param op the function that transforms a field name.
+   */
+  public FieldNameGenerator(final UnaryOperator<String> op) {
+    this(op, 0);
+  }
+
+  /**
+   * Creates a filter with a cache for the function.
+   *
+   * @param op the function that transforms a field name.
+   * @param cacheSize the maximum number of field names that are kept in the cache. With 0 there is
+   *     no cache.
+   */
+  public FieldNameGenerator(final UnaryOperator<String> op, final int cacheSize) {
+    this.op = cacheSize > 0 ? cached(op, cacheSize) : op;
+  }
+
+  private static UnaryOperator<String> cached(final UnaryOperator<String> op, final int maxSize) {
+    final Map<String, String> cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > maxSize;
+          }
+        };
+
+    return name -> cache.computeIfAbsent(name, op);
+  }
+
+  private JsonValue transform(final JsonValue value) {
+    return transformFieldNames(value, op);
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    return super.write(transform(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    return super.write(op.apply(name), transform(value));
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    return super.writeKey(op.apply(name));
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return super.writeNull(op.apply(name));
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    return super.writeStartArray(op.apply(name));
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    return super.writeStartObject(op.apply(name));
+  }
+}
@@ -1,19 +1,96 @@
 package net.pincette.json.filter;
 
+import static java.lang.System.nanoTime;
+import static net.pincette.json.filter.Util.estimateSize;
+
+import java.time.Duration;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 
 /**
  * This filter flushes every write down stream, which can be interesting for debugging purposes.
+ * With a <code>Policy</code> it flushes less often, which is better for the throughput of streamed
+ * responses.
  *
  * @author Werner Donn\u00e9
  * @since 1.0
  */
 public class FlushingGenerator extends JsonGeneratorFilter {
+  private final Policy policy;
+  private long bytes;
+  private int depth;
+  private long flushes;
+  private boolean inArray;
+  private long lastFlush = nanoTime();
+
+  public FlushingGenerator() {
+    this(new Policy());
+  }
+
+  /**
+   * Creates a filter that flushes according to a policy.
+   *
+   * @param policy the flush policy.
+   * @since 2.2
+   */
+  public FlushingGenerator(final Policy policy) {
+    this.policy = policy;
+  }
+
+  private void after(final long written, final boolean elementEnd) {
+    bytes += written;
+
+    if (policy.isEveryEvent()
+        || (policy.elements && elementEnd)
+        || (policy.bytes > 0 && bytes >= policy.bytes)
+        || (policy.interval > 0 && nanoTime() - lastFlush >= policy.interval)) {
+      flush();
+    }
+  }
+
+  @Override
+  public void flush() {
+    super.flush();
+    ++flushes;
+    bytes = 0;
+
+    if (policy.interval > 0) {
+      lastFlush = nanoTime();
+    }
+  }
+
+  /**
+   * Returns the number of flushes that were issued by this filter.
+   *
+   * @return The number of flushes.
+   * @since 2.2
+   */
+  public long getFlushes() {
+    return flushes;
+  }
+
+  private boolean isElement() {
+    return depth == 0 || (inArray && depth == 1);
+  }
+
+  /** Only estimates the size when the policy needs it, because it may serialize the value. */
+  private long size(final JsonValue value) {
+    return policy.bytes > 0 ? estimateSize(value) : 0;
+  }
+
+  private void start(final boolean array) {
+    if (depth == 0) {
+      inArray = array;
+    }
+
+    ++depth;
+    after(1, false);
+  }
+
   @Override
   public JsonGenerator write(JsonValue value) {
     super.write(value);
-    super.flush();
+    after(size(value), isElement());
 
     return this;
   }
@@ -21,7 +98,7 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator write(String name, JsonValue value) {
     super.write(name, value);
-    super.flush();
+    after(name.length() + 3L + size(value), false);
 
     return this;
   }
@@ -29,7 +106,16 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeEnd() {
     super.writeEnd();
-    super.flush();
+    --depth;
+    after(1, isElement());
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(String name) {
+    super.writeKey(name);
+    after(name.length() + 3L, false);
 
     return this;
   }
@@ -37,7 +123,15 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeNull() {
     super.writeNull();
-    super.flush();
+    after(4, isElement());
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull(String name) {
+    super.writeNull(name);
+    after(name.length() + 7L, false);
 
     return this;
   }
@@ -45,7 +139,7 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartArray() {
     super.writeStartArray();
-    super.flush();
+    start(true);
 
     return this;
   }
@@ -53,7 +147,7 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartArray(String name) {
     super.writeStartArray(name);
-    super.flush();
+    start(true);
 
     return this;
   }
@@ -61,7 +155,7 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartObject() {
     super.writeStartObject();
-    super.flush();
+    start(false);
 
     return this;
   }
@@ -69,8 +163,65 @@ public class FlushingGenerator extends JsonGeneratorFilter {
   @Override
   public JsonGenerator writeStartObject(String name) {
     super.writeStartObject(name);
-    super.flush();
+    start(false);
 
     return this;
   }
+
+  /**
+   * Decides when to flush. A flush happens as soon as one of the configured conditions is met. The
+   * size is estimated as the number of characters of the JSON text that was written since the last
+   * flush. The interval is checked when something is written, because the filter doesn't have its
+   * own timer. When nothing is configured, every write is flushed.
+   *
+   * @since 2.2
+   */
+  public static class Policy {
+    private final long bytes;
+    private final boolean elements;
+    private final long interval;
+
+    public Policy() {
+      this(0, false, 0);
+    }
+
+    private Policy(final long bytes, final boolean elements, final long interval) {
+      this.bytes = bytes;
+      this.elements = elements;
+      this.interval = interval;
+    }
+
+    private boolean isEveryEvent() {
+      return bytes <= 0 && !elements && interval <= 0;
+    }
+
+    /**
+     * Flushes when at least a number of bytes has been written since the last flush.
+     *
+     * @param bytes the number of bytes.
+     * @return The new policy.
+     */
+    public Policy withBytes(final long bytes) {
+      return new Policy(bytes, elements, interval);
+    }
+
+    /**
+     * Flushes after each element of the top-level array and at the end of the top-level value.
+     *
+     * @return The new policy.
+     */
+    public Policy withElements() {
+      return new Policy(bytes, true, interval);
+    }
+
+    /**
+     * Flushes when a write happens at least an interval after the last flush.
+     *
+     * @param interval the interval.
+     * @return The new policy.
+     */
+    public Policy withInterval(final Duration interval) {
+      return new Policy(bytes, elements, interval.toNanos());
+    }
+  }
 }
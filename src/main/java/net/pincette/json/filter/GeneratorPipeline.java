@@ -0,0 +1,396 @@
+package net.pincette.json.filter;
+
+import static java.util.Arrays.fill;
+import static java.util.Collections.disjoint;
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static javax.json.stream.JsonParser.Event.VALUE_FALSE;
+import static javax.json.stream.JsonParser.Event.VALUE_NULL;
+import static javax.json.stream.JsonParser.Event.VALUE_NUMBER;
+import static javax.json.stream.JsonParser.Event.VALUE_STRING;
+import static javax.json.stream.JsonParser.Event.VALUE_TRUE;
+import static net.pincette.json.JsonUtil.createValue;
+import static net.pincette.json.filter.Util.getValue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * A chain of <code>JsonGeneratorFilter</code> elements that is linked only once. Appending with
+ * <code>thenApply</code> walks the chain every time, while the builder of this class collects the
+ * elements and links them when the pipeline is built.
+ *
+ * <p>The events a filter doesn't care about, according to <code>JsonGeneratorFilter.getEvents
+ * </code>, go directly to the first element after it that does care about them. Where all events go
+ * to the same element, the elements are linked directly, so a pipeline of filters that want to see
+ * everything costs the same as a chain made with <code>thenApply</code>. The methods <code>
+ * close</code> and <code>flush</code> always reach every element.
+ *
+ * <p>Events can also be delivered in batches with the <code>write</code> method that takes arrays
+ * of events and values, which can be filled with <code>read</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class GeneratorPipeline extends JsonValueGenerator {
+  private static final int END = 13;
+  private static final int KEY = 12;
+  private static final int NAMED_VALUE = 6;
+  private static final int NULL_KIND = 4;
+  private static final int OPERATIONS = 18;
+  private static final int START_ARRAY_ANONYMOUS = 14;
+  private static final int START_ARRAY_NAMED = 15;
+  private static final int START_OBJECT_ANONYMOUS = 16;
+  private static final int START_OBJECT_NAMED = 17;
+  private static final int STRUCTURE_KIND = 5;
+  private static final int VALUE = 0;
+  private static final List<Set<Event>> REQUIRED = required();
+
+  private final JsonGenerator entry;
+
+  private GeneratorPipeline(final List<JsonGeneratorFilter> filters, final JsonGenerator sink) {
+    final JsonGenerator[] targets = new JsonGenerator[OPERATIONS];
+    JsonGenerator following = sink;
+
+    fill(targets, sink);
+
+    for (int i = filters.size() - 1; i >= 0; --i) {
+      final JsonGeneratorFilter filter = filters.get(i);
+      final Set<Event> events = filter.getEvents();
+
+      filter.setNext(link(targets, following));
+
+      for (int j = 0; j < OPERATIONS; ++j) {
+        if (REQUIRED.get(j) == null || !disjoint(events, REQUIRED.get(j))) {
+          targets[j] = filter;
+        }
+      }
+
+      following = filter;
+    }
+
+    entry = link(targets, following);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private static int kind(final JsonValue value) {
+    return switch (value.getValueType()) {
+      case STRING -> 0;
+      case NUMBER -> 1;
+      case TRUE -> 2;
+      case FALSE -> 3;
+      case NULL -> NULL_KIND;
+      default -> STRUCTURE_KIND;
+    };
+  }
+
+  private static JsonGenerator link(final JsonGenerator[] targets, final JsonGenerator next) {
+    for (final JsonGenerator target : targets) {
+      if (target != next) {
+        return new Route(targets.clone(), next);
+      }
+    }
+
+    return next;
+  }
+
+  /**
+   * Reads a batch of events from a parser. For a key the value is a <code>JsonString</code> with
+   * the name. For scalar events it is the value and for the start and end of structures it is
+   * <code>null</code>.
+   *
+   * @param parser the parser.
+   * @param events the array that receives the events.
+   * @param values the array that receives the values. It should be at least as long as <code>
+   *     events</code>.
+   * @return The number of events that were read. It is only smaller than the length of <code>
+   *     events</code> when the parser has no more events.
+   */
+  public static int read(final JsonParser parser, final Event[] events, final JsonValue[] values) {
+    int i = 0;
+
+    while (i < events.length && parser.hasNext()) {
+      final Event event = parser.next();
+
+      events[i] = event;
+      values[i] =
+          switch (event) {
+            case KEY_NAME -> createValue(parser.getString());
+            case START_ARRAY, START_OBJECT, END_ARRAY, END_OBJECT -> null;
+            default -> getValue(event, parser);
+          };
+      ++i;
+    }
+
+    return i;
+  }
+
+  private static List<Set<Event>> required() {
+    final List<Set<Event>> result = new ArrayList<>(OPERATIONS);
+    final List<Set<Event>> values =
+        List.of(
+            EnumSet.of(VALUE_STRING),
+            EnumSet.of(VALUE_NUMBER),
+            EnumSet.of(VALUE_TRUE),
+            EnumSet.of(VALUE_FALSE),
+            EnumSet.of(VALUE_NULL));
+
+    result.addAll(values);
+    result.add(null); // A structure as a value contains all kinds of events.
+
+    for (final Set<Event> value : values) {
+      final Set<Event> named = EnumSet.copyOf(value);
+
+      named.add(KEY_NAME);
+      result.add(named);
+    }
+
+    result.add(null);
+    result.add(EnumSet.of(KEY_NAME));
+    result.add(EnumSet.of(END_ARRAY, END_OBJECT));
+    result.add(EnumSet.of(START_ARRAY));
+    result.add(EnumSet.of(KEY_NAME, START_ARRAY));
+    result.add(EnumSet.of(START_OBJECT));
+    result.add(EnumSet.of(KEY_NAME, START_OBJECT));
+
+    return result;
+  }
+
+  @Override
+  public void close() {
+    entry.close();
+  }
+
+  @Override
+  public void flush() {
+    entry.flush();
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    entry.write(value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    entry.write(name, value);
+
+    return this;
+  }
+
+  /**
+   * Delivers a batch of events, as filled by <code>read</code>. For the events <code>VALUE_NULL
+   * </code>, <code>VALUE_TRUE</code> and <code>VALUE_FALSE</code> the value may be <code>null
+   * </code>.
+   *
+   * @param events the events.
+   * @param values the values that go with the events.
+   * @param length the number of events in the arrays.
+   * @return The pipeline.
+   */
+  public GeneratorPipeline write(final Event[] events, final JsonValue[] values, final int length) {
+    for (int i = 0; i < length; ++i) {
+      switch (events[i]) {
+        case START_ARRAY -> entry.writeStartArray();
+        case START_OBJECT -> entry.writeStartObject();
+        case KEY_NAME -> entry.writeKey(((JsonString) values[i]).getString());
+        case END_ARRAY, END_OBJECT -> entry.writeEnd();
+        case VALUE_NULL -> entry.writeNull();
+        case VALUE_TRUE -> entry.write(true);
+        case VALUE_FALSE -> entry.write(false);
+        default -> entry.write(values[i]);
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    entry.writeEnd();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    entry.writeKey(name);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    entry.writeNull();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    entry.writeNull(name);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    entry.writeStartArray();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    entry.writeStartArray(name);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    entry.writeStartObject();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    entry.writeStartObject(name);
+
+    return this;
+  }
+
+  /**
+   * Collects the elements of a pipeline.
+   *
+   * @since 2.2
+   */
+  public static class Builder {
+    private final List<JsonGeneratorFilter> filters = new ArrayList<>();
+
+    private Builder() {}
+
+    /**
+     * Links the filters and the sink. The filters should not have been linked to anything before.
+     *
+     * @param sink the generator that receives the result of the pipeline.
+     * @return The pipeline.
+     */
+    public GeneratorPipeline build(final JsonGenerator sink) {
+      return new GeneratorPipeline(filters, sink);
+    }
+
+    public Builder thenApply(final JsonGeneratorFilter filter) {
+      filters.add(filter);
+
+      return this;
+    }
+  }
+
+  /** Sends every operation to the first element that wants to see it. */
+  private static class Route extends JsonValueGenerator {
+    private final JsonGenerator next;
+    private final JsonGenerator[] targets;
+
+    private Route(final JsonGenerator[] targets, final JsonGenerator next) {
+      this.targets = targets;
+      this.next = next;
+    }
+
+    @Override
+    public void close() {
+      next.close();
+    }
+
+    @Override
+    public void flush() {
+      next.flush();
+    }
+
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+      targets[VALUE + kind(value)].write(value);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final JsonValue value) {
+      targets[NAMED_VALUE + kind(value)].write(name, value);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+      targets[END].writeEnd();
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeKey(final String name) {
+      targets[KEY].writeKey(name);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+      targets[VALUE + NULL_KIND].writeNull();
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull(final String name) {
+      targets[NAMED_VALUE + NULL_KIND].writeNull(name);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+      targets[START_ARRAY_ANONYMOUS].writeStartArray();
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(final String name) {
+      targets[START_ARRAY_NAMED].writeStartArray(name);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+      targets[START_OBJECT_ANONYMOUS].writeStartObject();
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(final String name) {
+      targets[START_OBJECT_NAMED].writeStartObject(name);
+
+      return this;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package net.pincette.json.filter;
+
+import static java.lang.Math.max;
+
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Writes the values it receives to a generator, which can be a filter chain. The values are written
+ * as the elements of an array, so the generator sees <code>writeStartArray()</code>, a number of
+ * <code>write(JsonValue)</code> calls and <code>writeEnd()</code>. That is also what <code>
+ * ArrayStreamingGeneratorFilter</code> produces. When the publisher completes the generator is
+ * closed. When it fails, the generator is left as it is.
+ *
+ * <p>The values are requested in batches. A new batch is requested when half of the previous one
+ * has been received.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class GeneratorSubscriber implements Subscriber<JsonValue> {
+  private static final long DEFAULT_PREFETCH = 256;
+
+  private final JsonGenerator generator;
+  private final long prefetch;
+  private final long threshold;
+  private long received;
+  private Subscription subscription;
+
+  public GeneratorSubscriber(final JsonGenerator generator) {
+    this(generator, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Creates the subscriber.
+   *
+   * @param generator the generator that receives the values.
+   * @param prefetch the number of values that are requested at once.
+   */
+  public GeneratorSubscriber(final JsonGenerator generator, final long prefetch) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("The prefetch should be at least 1");
+    }
+
+    this.generator = generator;
+    this.prefetch = prefetch;
+    this.threshold = max(1, prefetch / 2);
+  }
+
+  public void onComplete() {
+    generator.writeEnd();
+    generator.close();
+  }
+
+  public void onError(final Throwable throwable) {
+    subscription = null;
+  }
+
+  public void onNext(final JsonValue value) {
+    generator.write(value);
+
+    if (++received == threshold) {
+      received = 0;
+      subscription.request(threshold);
+    }
+  }
+
+  public void onSubscribe(final Subscription subscription) {
+    if (this.subscription != null) {
+      subscription.cancel();
+    } else {
+      this.subscription = subscription;
+      generator.writeStartArray();
+      subscription.request(prefetch);
+    }
+  }
+}
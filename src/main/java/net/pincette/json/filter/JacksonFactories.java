@@ -0,0 +1,111 @@
+package net.pincette.json.filter;
+
+import static com.fasterxml.jackson.core.util.JsonRecyclerPools.sharedConcurrentDequePool;
+import static com.fasterxml.jackson.dataformat.yaml.YAMLGenerator.Feature.LITERAL_BLOCK_STYLE;
+import static net.pincette.util.Util.tryToDoRethrow;
+import static net.pincette.util.Util.tryToGetRethrow;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The shared Jackson factories that are used by default in this library. Creating a factory is
+ * expensive, so they are created only once. They use a shared, deque-based recycler pool instead of
+ * the default <code>ThreadLocal</code>-based one, because the latter doesn't work well with virtual
+ * threads, which are short-lived and never reuse the buffers they have allocated.
+ *
+ * <p>The Smile and CBOR factories can be given to <code>JacksonParser.create</code> and <code>
+ * JacksonGenerator.create</code> to use those binary formats in a filter chain.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class JacksonFactories {
+  private static final int CBOR_ARRAY = 0x80;
+  private static final int CBOR_MAP_END = 0xbf;
+  private static final byte[] CBOR_SELF_DESCRIBE = {(byte) 0xd9, (byte) 0xd9, (byte) 0xf7};
+  private static final byte[] SMILE_HEADER = {0x3a, 0x29, 0x0a};
+
+  private static final RecyclerPool<BufferRecycler> pool = sharedConcurrentDequePool();
+  private static final CBORFactory cbor = CBORFactory.builder().recyclerPool(pool).build();
+  private static final JsonFactory json = JsonFactory.builder().recyclerPool(pool).build();
+  private static final SmileFactory smile = SmileFactory.builder().recyclerPool(pool).build();
+  private static final YAMLFactory yaml =
+      YAMLFactory.builder().recyclerPool(pool).enable(LITERAL_BLOCK_STYLE).build();
+
+  private JacksonFactories() {}
+
+  public static CBORFactory cborFactory() {
+    return cbor;
+  }
+
+  /**
+   * Selects the factory with the first bytes of the stream. Smile is recognised by its header. CBOR
+   * is recognised by its self-describe tag or because the first byte announces an array or a map.
+   * In all other cases it is JSON. YAML is not detected. The stream is reset to where it was.
+   *
+   * @param in the input stream, which must support <code>mark</code>.
+   * @return The factory.
+   */
+  public static JsonFactory detect(final InputStream in) {
+    if (!in.markSupported()) {
+      throw new IllegalArgumentException("The input stream should support mark");
+    }
+
+    final byte[] head = new byte[SMILE_HEADER.length];
+
+    in.mark(head.length);
+
+    final int read = tryToGetRethrow(() -> in.readNBytes(head, 0, head.length)).orElse(0);
+
+    tryToDoRethrow(in::reset);
+
+    return detect(head, read);
+  }
+
+  /**
+   * Selects the factory with the first bytes of a buffer.
+   *
+   * @param bytes the buffer.
+   * @param length the number of bytes that can be looked at.
+   * @return The factory.
+   * @see #detect(InputStream)
+   */
+  public static JsonFactory detect(final byte[] bytes, final int length) {
+    if (startsWith(bytes, length, SMILE_HEADER)) {
+      return smile;
+    }
+
+    return startsWith(bytes, length, CBOR_SELF_DESCRIBE)
+            || (length >= 1 && isCborStructure(bytes[0] & 0xff))
+        ? cbor
+        : json;
+  }
+
+  private static boolean isCborStructure(final int first) {
+    return first >= CBOR_ARRAY && first <= CBOR_MAP_END;
+  }
+
+  public static JsonFactory jsonFactory() {
+    return json;
+  }
+
+  public static SmileFactory smileFactory() {
+    return smile;
+  }
+
+  private static boolean startsWith(final byte[] bytes, final int length, final byte[] prefix) {
+    return length >= prefix.length
+        && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+  }
+
+  public static YAMLFactory yamlFactory() {
+    return yaml;
+  }
+}
@@ -4,8 +4,12 @@ import static javax.json.JsonValue.ValueType.ARRAY;
 import static javax.json.JsonValue.ValueType.OBJECT;
 import static net.pincette.json.JsonUtil.asNumber;
 import static net.pincette.json.JsonUtil.asString;
+import static net.pincette.json.filter.JacksonFactories.jsonFactory;
 import static net.pincette.util.Util.tryToDoRethrow;
+import static net.pincette.util.Util.tryToGetRethrow;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayDeque;
@@ -31,6 +35,29 @@ public class JacksonGenerator implements JsonGenerator {
     this.generator = generator;
   }
 
+  /**
+   * Creates a JSON generator with the shared factory, which writes UTF-8 directly to the stream.
+   *
+   * @param out the output stream.
+   * @return The generator.
+   * @since 2.2
+   */
+  public static JacksonGenerator create(final OutputStream out) {
+    return create(out, jsonFactory());
+  }
+
+  /**
+   * Creates a generator that writes directly to the stream.
+   *
+   * @param out the output stream.
+   * @param factory the Jackson factory, which determines the format.
+   * @return The generator.
+   * @since 2.2
+   */
+  public static JacksonGenerator create(final OutputStream out, final JsonFactory factory) {
+    return new JacksonGenerator(tryToGetRethrow(() -> factory.createGenerator(out)).orElseThrow());
+  }
+
   public void close() {
     tryToDoRethrow(generator::close);
   }
@@ -1,15 +1,26 @@
 package net.pincette.json.filter;
 
+import static com.fasterxml.jackson.core.JsonParser.NumberType.INT;
+import static com.fasterxml.jackson.core.JsonParser.NumberType.LONG;
 import static com.fasterxml.jackson.core.JsonToken.NOT_AVAILABLE;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
 import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
+import static net.pincette.json.filter.JacksonFactories.jsonFactory;
 import static net.pincette.util.Util.tryToDoRethrow;
 import static net.pincette.util.Util.tryToGetRethrow;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.NoSuchElementException;
 import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
+import net.pincette.io.ByteBufferInputStream;
 
 /**
  * A JSON parser that gets everything from a Jackson parser.
@@ -26,6 +37,99 @@ public class JacksonParser implements JsonParser {
     this.parser = parser;
   }
 
+  /**
+   * Creates a JSON parser with the shared factory, which reads the UTF-8 encoded bytes directly.
+   *
+   * @param bytes the UTF-8 encoded bytes.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final byte[] bytes) {
+    return create(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Creates a JSON parser with the shared factory, which reads the UTF-8 encoded bytes directly.
+   *
+   * @param bytes the buffer.
+   * @param offset the start of the UTF-8 encoded bytes in the buffer.
+   * @param length the number of bytes.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final byte[] bytes, final int offset, final int length) {
+    return create(bytes, offset, length, jsonFactory());
+  }
+
+  /**
+   * Creates a parser, which reads the bytes directly.
+   *
+   * @param bytes the buffer.
+   * @param offset the start of the bytes in the buffer.
+   * @param length the number of bytes.
+   * @param factory the Jackson factory, which determines the format.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(
+      final byte[] bytes, final int offset, final int length, final JsonFactory factory) {
+    return new JacksonParser(
+        tryToGetRethrow(() -> factory.createParser(bytes, offset, length)).orElseThrow());
+  }
+
+  /**
+   * Creates a JSON parser with the shared factory for the remaining bytes in the buffer. The
+   * position of the buffer is not changed. When the buffer is backed by an array it is read
+   * directly.
+   *
+   * @param buffer the UTF-8 encoded bytes.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final ByteBuffer buffer) {
+    return create(buffer, jsonFactory());
+  }
+
+  /**
+   * Creates a parser for the remaining bytes in the buffer. The position of the buffer is not
+   * changed. When the buffer is backed by an array it is read directly.
+   *
+   * @param buffer the bytes.
+   * @param factory the Jackson factory, which determines the format.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final ByteBuffer buffer, final JsonFactory factory) {
+    return buffer.hasArray()
+        ? create(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), factory)
+        : create(new ByteBufferInputStream(List.of(buffer.duplicate())), factory);
+  }
+
+  /**
+   * Creates a JSON parser with the shared factory. The encoding is detected by Jackson, which
+   * avoids the decoding overhead of a <code>Reader</code>.
+   *
+   * @param in the input stream.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final InputStream in) {
+    return create(in, jsonFactory());
+  }
+
+  /**
+   * Creates a parser that reads from an input stream.
+   *
+   * @param in the input stream.
+   * @param factory the Jackson factory, which determines the format.
+   * @return The parser.
+   * @since 2.2
+   */
+  public static JacksonParser create(final InputStream in, final JsonFactory factory) {
+    return new JacksonParser(tryToGetRethrow(() -> factory.createParser(in)).orElseThrow());
+  }
+
   public void close() {
     tryToDoRethrow(parser::close);
   }
@@ -55,7 +159,35 @@ public class JacksonParser implements JsonParser {
   }
 
   public boolean isIntegralNumber() {
-    return event != null && token == VALUE_NUMBER_INT;
+    return token == VALUE_NUMBER_INT;
+  }
+
+  /**
+   * Indicates whether the current number fits in an <code>int</code>. Jackson knows this from the
+   * token, so no <code>BigDecimal</code> is created.
+   *
+   * @return Whether the number fits or not.
+   * @since 2.2
+   */
+  public boolean isIntNumber() {
+    return isIntegralNumber() && numberType() == INT;
+  }
+
+  /**
+   * Indicates whether the current number fits in a <code>long</code>. Jackson knows this from the
+   * token, so no <code>BigDecimal</code> is created.
+   *
+   * @return Whether the number fits or not.
+   * @since 2.2
+   */
+  public boolean isLongNumber() {
+    if (!isIntegralNumber()) {
+      return false;
+    }
+
+    final NumberType type = numberType();
+
+    return type == INT || type == LONG;
   }
 
   /**
@@ -90,4 +222,24 @@ public class JacksonParser implements JsonParser {
       default -> throw new NoSuchElementException();
     };
   }
+
+  private NumberType numberType() {
+    return tryToGetRethrow(parser::getNumberType).orElse(null);
+  }
+
+  /**
+   * Skips the rest of the current array or object without creating anything. When the parser is in
+   * the state <code>START_ARRAY</code> or <code>START_OBJECT</code>, this is delegated to Jackson.
+   * Afterwards the parser is in the state <code>END_ARRAY</code> or <code>END_OBJECT</code>.
+   *
+   * @since 2.2
+   */
+  public void skipChildren() {
+    if (event == null && (token == START_ARRAY || token == START_OBJECT)) {
+      tryToDoRethrow(parser::skipChildren);
+      token = parser.currentToken();
+    } else {
+      Util.skip(this);
+    }
+  }
 }
@@ -0,0 +1,53 @@
+package net.pincette.json.filter;
+
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.Jslt.transformerValue;
+
+import java.util.function.UnaryOperator;
+import javax.json.JsonValue;
+import net.pincette.json.Jslt.Context;
+
+/**
+ * Applies a JSLT script to each element of the top-level array while it streams through. Like with
+ * <code>ArrayStreamingGeneratorFilter</code>, the write sequence to the next filter element will be
+ * <code>writeStartArray()</code>, a number of <code>write(JsonValue)</code> calls and finally
+ * <code>writeEnd()</code>. Only one element is held in memory at the time.
+ *
+ * <p>This is a <code>ParallelElementGeneratorFilter</code> that runs the script on the writing
+ * thread with a window of one element, so elements that are <code>null</code> also reach the script
+ * as a JSON <code>null</code>. Unlike in that filter, an element for which the script produces a
+ * JSON <code>null</code> is dropped, because that is how a JSLT script says it has no output.
+ *
+ * <p>The script is compiled once. To run it on several elements at the same time, give <code>
+ * Jslt.transformerValue</code> to a <code>ParallelElementGeneratorFilter</code> instead.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class JsltGeneratorFilter extends ParallelElementGeneratorFilter {
+  /**
+   * Compiles the script in the context.
+   *
+   * @param context the context of the JSLT script.
+   */
+  public JsltGeneratorFilter(final Context context) {
+    this(transformerValue(context));
+  }
+
+  /**
+   * Uses a transformer that was already compiled with <code>Jslt.transformerValue</code>.
+   *
+   * @param transformer the transformer function.
+   */
+  public JsltGeneratorFilter(final UnaryOperator<JsonValue> transformer) {
+    super(dropNull(transformer), Runnable::run, 1);
+  }
+
+  private static UnaryOperator<JsonValue> dropNull(final UnaryOperator<JsonValue> transformer) {
+    return value -> {
+      final JsonValue result = transformer.apply(value);
+
+      return result != null && !NULL.equals(result) ? result : null;
+    };
+  }
+}
@@ -17,7 +17,8 @@ import javax.json.stream.JsonGenerator;
 import net.pincette.util.Pair;
 
 /**
- * Accumulates a JSON stream in a given JSON builder.
+ * Accumulates a JSON stream in a given JSON builder. Without a given builder, <code>
+ * JsonTreeGenerator</code> does the same with less allocation.
  *
  * @author Werner Donné
  * @since 1.0
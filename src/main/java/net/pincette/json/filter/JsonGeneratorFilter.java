@@ -1,9 +1,14 @@
 package net.pincette.json.filter;
 
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import javax.json.JsonException;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser.Event;
 
 /**
  * A filter for <code>JsonGenerators</code>. You can use it as follows:
@@ -16,10 +21,14 @@ import javax.json.stream.JsonGenerator;
  *
  * <p>The value writers in this class call the variants with the <code>JsonValue</code> type.
  *
+ * <p>When a chain is long and stable, it can be frozen with a <code>GeneratorPipeline</code>.
+ *
  * @author Werner Donné
  * @since 1.0
  */
 public class JsonGeneratorFilter extends JsonValueGenerator implements JsonGenerator {
+  private static final Set<Event> ALL_EVENTS = unmodifiableSet(EnumSet.allOf(Event.class));
+
   private JsonGenerator next;
   private JsonGenerator saved;
 
@@ -33,6 +42,19 @@ public class JsonGeneratorFilter extends JsonValueGenerator implements JsonGener
     Optional.ofNullable(next).ifPresent(JsonGenerator::flush);
   }
 
+  /**
+   * Returns the events this filter wants to see. When the filter is part of a <code>
+   * GeneratorPipeline</code>, the other events bypass it. A <code>writeEnd</code> is both an <code>
+   * END_OBJECT</code> and an <code>END_ARRAY</code> event. Only a stateless filter can restrict its
+   * events, because it doesn't see the entire stream anymore. The default is all events.
+   *
+   * @return The events.
+   * @since 2.2
+   */
+  public Set<Event> getEvents() {
+    return ALL_EVENTS;
+  }
+
   /**
    * Causes all writes to go to <code>accumulator</code> instead of the next element in the filter
    * chain.
@@ -75,6 +97,10 @@ public class JsonGeneratorFilter extends JsonValueGenerator implements JsonGener
     saved = null;
   }
 
+  void setNext(final JsonGenerator next) {
+    this.next = next;
+  }
+
   /**
    * Appends a generator to a filter chain.
    *
@@ -1,10 +1,20 @@
 package net.pincette.json.filter;
 
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
 import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
 import static net.pincette.json.filter.Util.valueStream;
+import static net.pincette.util.StreamUtil.stream;
 
 import java.math.BigDecimal;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
@@ -20,6 +30,7 @@ import javax.json.stream.JsonParser;
  * @since 1.0
  */
 public class JsonParserWrapper implements JsonParser {
+  private final Deque<Event> contexts = new ArrayDeque<>();
   private final JsonParser delegate;
   private Event event;
 
@@ -46,6 +57,10 @@ public class JsonParserWrapper implements JsonParser {
     return valueStream(this);
   }
 
+  JsonParser getDelegate() {
+    return delegate;
+  }
+
   public BigDecimal getBigDecimal() {
     return delegate.getBigDecimal();
   }
@@ -67,9 +82,47 @@ public class JsonParserWrapper implements JsonParser {
     return Util.getObject(this);
   }
 
+  /**
+   * Returns the entries of the object one by one. Only the value of the current entry is kept in
+   * memory. The state must be <code>START_OBJECT</code>.
+   *
+   * @return The entry stream.
+   */
   @Override
   public Stream<Entry<String, JsonValue>> getObjectStream() {
-    return getObject().entrySet().stream();
+    if (event != START_OBJECT) {
+      throw new IllegalStateException(
+          "In state " + event + " instead of " + START_OBJECT.toString());
+    }
+
+    return stream(
+        new Iterator<>() {
+          private boolean done;
+          private String key;
+
+          @Override
+          public boolean hasNext() {
+            if (key == null && !done) {
+              done = !JsonParserWrapper.this.hasNext() || JsonParserWrapper.this.next() != KEY_NAME;
+              key = done ? null : getString();
+            }
+
+            return key != null;
+          }
+
+          @Override
+          public Entry<String, JsonValue> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+
+            final String k = key;
+
+            key = null;
+
+            return new SimpleImmutableEntry<>(k, getValue(JsonParserWrapper.this.next()));
+          }
+        });
   }
 
   public String getString() {
@@ -78,7 +131,11 @@ public class JsonParserWrapper implements JsonParser {
 
   @Override
   public JsonValue getValue() {
-    return Util.getValue(event, this);
+    return getValue(event);
+  }
+
+  private JsonValue getValue(final Event e) {
+    return Util.getValue(e, this);
   }
 
   @Override
@@ -97,16 +154,46 @@ public class JsonParserWrapper implements JsonParser {
   public Event next() {
     event = delegate.next();
 
+    if (event == START_ARRAY || event == START_OBJECT) {
+      contexts.push(event);
+    } else if ((event == END_ARRAY || event == END_OBJECT) && !contexts.isEmpty()) {
+      contexts.pop();
+    }
+
     return event;
   }
 
+  private void skip(final Event start, final Event end) {
+    if (contexts.peek() != start) {
+      return;
+    }
+
+    if (event == start && delegate instanceof JacksonParser jacksonParser) {
+      jacksonParser.skipChildren();
+    } else {
+      Util.skip(delegate);
+    }
+
+    contexts.pop();
+    event = end;
+  }
+
+  /**
+   * Skips the array without building it. When the delegate is a <code>JacksonParser</code>, Jackson
+   * does the skipping. Nothing happens when the innermost enclosing structure is not an array.
+   */
   @Override
   public void skipArray() {
-    getArray();
+    skip(START_ARRAY, END_ARRAY);
   }
 
+  /**
+   * Skips the object without building it. When the delegate is a <code>JacksonParser</code>,
+   * Jackson does the skipping. Nothing happens when the innermost enclosing structure is not an
+   * object.
+   */
   @Override
   public void skipObject() {
-    getObject();
+    skip(START_OBJECT, END_OBJECT);
   }
 }
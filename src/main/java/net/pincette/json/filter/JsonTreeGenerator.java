@@ -0,0 +1,333 @@
+package net.pincette.json.filter;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+import static net.pincette.json.JsonUtil.getProvider;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+import net.pincette.json.value.CompactProvider;
+
+/**
+ * Builds a JSON tree from a JSON stream. It does the same as a <code>JsonBuilderGenerator</code>
+ * without a given builder, but with less allocation. The entries of the open objects and arrays are
+ * collected in arrays, which are only turned into a <code>JsonStructure</code> when the object or
+ * array ends. The frames and their arrays are kept, so a generator that is used for several
+ * structures in a row, one after the other, doesn't allocate them again.
+ *
+ * <p>The values are created with a provider, which is the one of <code>JsonUtil</code> by default.
+ * A <code>CompactProvider</code> receives the collected arrays directly.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class JsonTreeGenerator extends JsonValueGenerator {
+  private static final int INITIAL_DEPTH = 16;
+
+  private final JsonProvider provider;
+  private int depth;
+  private Frame[] frames = new Frame[INITIAL_DEPTH];
+  private String key;
+  private JsonStructure result;
+
+  public JsonTreeGenerator() {
+    this(getProvider());
+  }
+
+  /**
+   * Creates a generator that creates the values with <code>provider</code>.
+   *
+   * @param provider the given provider.
+   */
+  public JsonTreeGenerator(final JsonProvider provider) {
+    this.provider = provider;
+  }
+
+  private void add(final String name, final JsonValue value) {
+    if (depth > 0) {
+      frames[depth - 1].add(name, value);
+    }
+  }
+
+  /**
+   * Returns the last structure that was completed.
+   *
+   * @return The created JSON structure.
+   */
+  public JsonStructure build() {
+    if (result == null || depth > 0) {
+      throw new IllegalStateException("Object or array is not complete");
+    }
+
+    return result;
+  }
+
+  private void checkNoKey() {
+    if (key != null) {
+      throw new JsonException("writeKey was called without following value");
+    }
+  }
+
+  private void push(final String name, final boolean array) {
+    if (depth == 0) {
+      result = null;
+    }
+
+    if (depth == frames.length) {
+      frames = copyOf(frames, depth * 2);
+    }
+
+    if (frames[depth] == null) {
+      frames[depth] = new Frame();
+    }
+
+    frames[depth++].start(name, array);
+  }
+
+  private String takeKey() {
+    final String k = key;
+
+    key = null;
+
+    return k;
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    add(takeKey(), value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    checkNoKey();
+    add(name, value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final BigDecimal value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final BigInteger value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final int value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final long value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final double value) {
+    return write(provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final boolean value) {
+    return write(value ? TRUE : FALSE);
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final String value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final BigInteger value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final BigDecimal value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final int value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final long value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final double value) {
+    return write(name, provider.createValue(value));
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final boolean value) {
+    return write(name, value ? TRUE : FALSE);
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    if (depth == 0) {
+      throw new JsonException("writeEnd was called without an open object or array");
+    }
+
+    final Frame frame = frames[--depth];
+    final JsonStructure structure = frame.build(provider);
+
+    if (depth == 0) {
+      result = structure;
+    } else {
+      frames[depth - 1].add(frame.name, structure);
+    }
+
+    frame.clear();
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    key = name;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    return write(NULL);
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return write(name, NULL);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    push(takeKey(), true);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    checkNoKey();
+    push(name, true);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    push(takeKey(), false);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    checkNoKey();
+    push(name, false);
+
+    return this;
+  }
+
+  private static class Frame {
+    private static final int INITIAL_SIZE = 8;
+
+    private boolean array;
+    private String name;
+    private String[] names = new String[INITIAL_SIZE];
+    private int size;
+    private JsonValue[] values = new JsonValue[INITIAL_SIZE];
+
+    private void add(final String name, final JsonValue value) {
+      if (array == (name != null)) {
+        throw new JsonException(
+            array ? "An array element can't have a name" : "An object field should have a name");
+      }
+
+      if (size == values.length) {
+        values = copyOf(values, size * 2);
+
+        if (!array) {
+          names = copyOf(names, size * 2);
+        }
+      }
+
+      if (!array) {
+        names[size] = name;
+      }
+
+      values[size++] = value;
+    }
+
+    private JsonStructure build(final JsonProvider provider) {
+      if (provider instanceof CompactProvider compact) {
+        return array
+            ? compact.createArray(values, size)
+            : compact.createObject(names, values, size);
+      }
+
+      if (array) {
+        final JsonArrayBuilder builder = provider.createArrayBuilder();
+
+        for (int i = 0; i < size; ++i) {
+          builder.add(values[i]);
+        }
+
+        return builder.build();
+      }
+
+      final JsonObjectBuilder builder = provider.createObjectBuilder();
+
+      for (int i = 0; i < size; ++i) {
+        builder.add(names[i], values[i]);
+      }
+
+      return builder.build();
+    }
+
+    private void clear() {
+      fill(values, 0, size, null);
+
+      if (!array) {
+        fill(names, 0, size, null);
+      }
+
+      name = null;
+      size = 0;
+    }
+
+    private void start(final String name, final boolean array) {
+      this.array = array;
+      this.name = name;
+
+      if (!array && names.length < values.length) {
+        names = copyOf(names, values.length);
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package net.pincette.json.filter;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.ForkJoinPool.commonPool;
+import static javax.json.JsonValue.NULL;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Applies a function to the elements of the top-level array in parallel. Like with <code>
+ * ArrayStreamingGeneratorFilter</code>, the write sequence to the next filter element will be
+ * <code>writeStartArray()</code>, a number of <code>write(JsonValue)</code> calls and finally
+ * <code>writeEnd()</code>. Each completed element is given to the function on an executor, while
+ * the results are written to the next filter element in the original order and on the thread that
+ * writes to this filter.
+ *
+ * <p>The number of elements that are being processed or that wait for their predecessors is bounded
+ * by a window. When it is full, the writing thread blocks until the oldest element is done. When
+ * the function returns <code>null</code> the element is dropped.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class ParallelElementGeneratorFilter extends JsonGeneratorFilter {
+  private final Executor executor;
+  private final UnaryOperator<JsonValue> function;
+  private final int window;
+  private boolean started;
+
+  /**
+   * Runs the function in the common fork/join pool with at most four elements per processor in the
+   * window.
+   *
+   * @param function the function that is applied to each element.
+   */
+  public ParallelElementGeneratorFilter(final UnaryOperator<JsonValue> function) {
+    this(function, commonPool(), getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * Creates the filter.
+   *
+   * @param function the function that is applied to each element.
+   * @param executor the executor that runs the function. It may use virtual threads.
+   * @param window the maximum number of elements that have been given to the executor, but that
+   *     have not been written yet.
+   */
+  public ParallelElementGeneratorFilter(
+      final UnaryOperator<JsonValue> function, final Executor executor, final int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("The window should be at least 1");
+    }
+
+    this.function = function;
+    this.executor = executor;
+    this.window = window;
+  }
+
+  private static JsonValue get(final CompletableFuture<JsonValue> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+    }
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    super.writeStartArray();
+
+    if (!started) {
+      started = true;
+      insertFilter(new Dispatcher());
+      insertFilter(new AccumulatingGeneratorFilter());
+    }
+
+    return this;
+  }
+
+  private class Dispatcher extends JsonGeneratorFilter {
+    private final Deque<CompletableFuture<JsonValue>> pending = new ArrayDeque<>();
+
+    private void forward(final int limit) {
+      while (!pending.isEmpty() && (pending.size() > limit || pending.peek().isDone())) {
+        final JsonValue result = get(pending.poll());
+
+        if (result != null) {
+          super.write(result);
+        }
+      }
+    }
+
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+      pending.add(supplyAsync(() -> function.apply(value), executor));
+      forward(window - 1);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+      forward(0);
+
+      return super.writeEnd();
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+      return write(NULL);
+    }
+  }
+}
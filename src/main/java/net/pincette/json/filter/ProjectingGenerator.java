@@ -0,0 +1,360 @@
+package net.pincette.json.filter;
+
+import static java.util.Arrays.copyOf;
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.JsonUtil.getPathSegments;
+import static net.pincette.json.JsonUtil.isArray;
+import static net.pincette.json.JsonUtil.isObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Keeps only the values under a set of paths or removes the values under a set of paths, while the
+ * events stream through. A path is either a JSON pointer or a dot-separated path as used in <code>
+ * JsonUtil.get</code>. The segment "*" matches every element of an array.
+ *
+ * <p>Only the current path is tracked. Subtrees are never built, except when they are written as a
+ * whole <code>JsonValue</code>, in which case they are replayed as events. When values are kept,
+ * the objects and arrays that lead to them are only written when something is kept in them. The
+ * top-level value is always written. The elements of arrays that are kept get new positions, as the
+ * elements in between are left out.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class ProjectingGenerator extends JsonGeneratorFilter {
+  private static final int INITIAL_DEPTH = 16;
+  private static final String WILDCARD = "*";
+
+  private final boolean include;
+  private final List<Node> matches = new ArrayList<>();
+  private final Node root = new Node();
+  private String current;
+  private int depth;
+  private boolean dropping;
+  private int emitted;
+  private Frame[] frames = new Frame[INITIAL_DEPTH];
+  private String key;
+  private int opaque;
+
+  /**
+   * Creates the filter.
+   *
+   * @param paths the JSON pointers or dot-separated paths.
+   * @param include when set, only the values under the paths are kept. Otherwise they are removed.
+   */
+  public ProjectingGenerator(final Set<String> paths, final boolean include) {
+    this.include = include;
+    paths.forEach(this::add);
+  }
+
+  private void add(final String path) {
+    Node node = root;
+
+    for (final String segment : getPathSegments(path)) {
+      node = node.children.computeIfAbsent(segment, s -> new Node());
+    }
+
+    node.terminal = true;
+  }
+
+  private boolean addMatch(final Node node) {
+    if (node == null) {
+      return false;
+    }
+
+    matches.add(node);
+
+    return node.terminal;
+  }
+
+  private Action decide(final String name) {
+    final boolean hit;
+
+    matches.clear();
+
+    if (depth == 0) {
+      current = null;
+      hit = addMatch(root);
+    } else {
+      final Frame frame = frames[depth - 1];
+      final String segment = segment(name, frame);
+      boolean h = false;
+
+      current = frame.array ? null : segment;
+
+      for (final Node node : frame.nodes) {
+        h |= addMatch(node.children.get(segment));
+
+        if (frame.array) {
+          h |= addMatch(node.children.get(WILDCARD));
+        }
+      }
+
+      hit = h;
+    }
+
+    if (hit) {
+      return include ? Action.PASS : Action.DROP;
+    }
+
+    if (matches.isEmpty()) {
+      return include ? Action.DROP : Action.PASS;
+    }
+
+    return Action.DESCEND;
+  }
+
+  private void emitPending() {
+    for (int i = emitted; i < depth; ++i) {
+      final Frame frame = frames[i];
+
+      if (frame.array) {
+        if (frame.name == null) {
+          super.writeStartArray();
+        } else {
+          super.writeStartArray(frame.name);
+        }
+      } else if (frame.name == null) {
+        super.writeStartObject();
+      } else {
+        super.writeStartObject(frame.name);
+      }
+    }
+
+    emitted = depth;
+  }
+
+  private void forward(final String name, final JsonValue value) {
+    emitPending();
+
+    if (name == null) {
+      super.write(value);
+    } else {
+      super.write(name, value);
+    }
+  }
+
+  private void forwardStart(final String name, final boolean array) {
+    if (array) {
+      if (name == null) {
+        super.writeStartArray();
+      } else {
+        super.writeStartArray(name);
+      }
+    } else if (name == null) {
+      super.writeStartObject();
+    } else {
+      super.writeStartObject(name);
+    }
+  }
+
+  private void push(final String name, final boolean array) {
+    if (depth == frames.length) {
+      frames = copyOf(frames, depth * 2);
+    }
+
+    if (frames[depth] == null) {
+      frames[depth] = new Frame();
+    }
+
+    final Frame frame = frames[depth++];
+
+    frame.array = array;
+    frame.index = 0;
+    frame.name = name;
+    frame.nodes.clear();
+    frame.nodes.addAll(matches);
+  }
+
+  private void descend(final String name, final boolean array) {
+    push(name, array);
+
+    if (!include || depth == 1) {
+      emitPending();
+    }
+  }
+
+  private void replay(final String name, final JsonValue value) {
+    if (isObject(value)) {
+      descend(name, false);
+      value.asJsonObject().forEach(this::write);
+    } else {
+      descend(name, true);
+      value.asJsonArray().forEach(this::write);
+    }
+
+    writeEnd();
+  }
+
+  private String segment(final String name, final Frame frame) {
+    if (frame.array) {
+      return String.valueOf(frame.index++);
+    }
+
+    return name != null ? name : takeKey();
+  }
+
+  private void start(final String name, final boolean array) {
+    if (opaque > 0) {
+      final String n = name != null ? name : takeKey();
+
+      ++opaque;
+
+      if (!dropping) {
+        forwardStart(n, array);
+      }
+
+      return;
+    }
+
+    switch (decide(name)) {
+      case PASS -> {
+        emitPending();
+        forwardStart(current, array);
+        opaque = 1;
+        dropping = false;
+      }
+      case DROP -> {
+        opaque = 1;
+        dropping = true;
+      }
+      default -> descend(current, array);
+    }
+  }
+
+  private String takeKey() {
+    final String k = key;
+
+    key = null;
+
+    return k;
+  }
+
+  private void value(final String name, final JsonValue value) {
+    if (opaque > 0) {
+      final String n = name != null ? name : takeKey();
+
+      if (!dropping) {
+        forward(n, value);
+      }
+
+      return;
+    }
+
+    final Action action = decide(name);
+
+    if (action == Action.PASS) {
+      forward(current, value);
+    } else if (action == Action.DESCEND) {
+      if (isObject(value) || isArray(value)) {
+        replay(current, value);
+      } else if (!include) {
+        forward(current, value);
+      }
+    }
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    value(null, value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    value(name, value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    if (opaque > 0) {
+      --opaque;
+
+      if (!dropping) {
+        super.writeEnd();
+      }
+    } else {
+      --depth;
+
+      if (depth < emitted) {
+        emitted = depth;
+        super.writeEnd();
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    key = name;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    return write(NULL);
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return write(name, NULL);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    start(null, true);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    start(name, true);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    start(null, false);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    start(name, false);
+
+    return this;
+  }
+
+  private enum Action {
+    DESCEND,
+    DROP,
+    PASS
+  }
+
+  private static class Frame {
+    private final List<Node> nodes = new ArrayList<>();
+    private boolean array;
+    private int index;
+    private String name;
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private boolean terminal;
+  }
+}
@@ -0,0 +1,251 @@
+package net.pincette.json.filter;
+
+import static java.util.Arrays.copyOf;
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.JsonUtil.createArrayBuilder;
+import static net.pincette.json.JsonUtil.createObjectBuilder;
+import static net.pincette.json.JsonUtil.isArray;
+import static net.pincette.json.JsonUtil.isNull;
+import static net.pincette.json.JsonUtil.isObject;
+
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Removes empty objects and arrays from the stream, as well as the fields with a <code>null</code>
+ * value if that is asked. This is done recursively, so an object that becomes empty because its
+ * fields are removed is also removed. The top-level value is never removed. Elements of arrays that
+ * are <code>null</code> are kept, because removing them would change the positions of the other
+ * elements.
+ *
+ * <p>The start of an object or array is only written when its first remaining value comes along.
+ * Until then, only its name and kind are kept on a stack, which grows with the nesting depth. No
+ * subtrees are kept, except when they are written as a whole <code>JsonValue</code>. The depth is
+ * limited, 1000 by default, which is also the default of Jackson. A deeper structure causes a
+ * <code>JsonException</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class PruningGenerator extends JsonGeneratorFilter {
+  private static final int DEFAULT_MAX_DEPTH = 1000;
+  private static final int INITIAL_DEPTH = 16;
+
+  private final int maxDepth;
+  private final boolean removeNulls;
+  private boolean[] arrays = new boolean[INITIAL_DEPTH];
+  private int depth;
+  private int emitted;
+  private String key;
+  private String[] names = new String[INITIAL_DEPTH];
+
+  /** Creates a filter that removes empty objects and arrays. */
+  public PruningGenerator() {
+    this(false);
+  }
+
+  /**
+   * Creates the filter.
+   *
+   * @param removeNulls when set, fields with a <code>null</code> value are also removed.
+   */
+  public PruningGenerator(final boolean removeNulls) {
+    this(removeNulls, DEFAULT_MAX_DEPTH);
+  }
+
+  /**
+   * Creates the filter.
+   *
+   * @param removeNulls when set, fields with a <code>null</code> value are also removed.
+   * @param maxDepth the maximum nesting depth.
+   */
+  public PruningGenerator(final boolean removeNulls, final int maxDepth) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("The maximum depth should be at least 1");
+    }
+
+    this.removeNulls = removeNulls;
+    this.maxDepth = maxDepth;
+  }
+
+  private void emitPending() {
+    for (int i = emitted; i < depth; ++i) {
+      if (arrays[i]) {
+        if (names[i] == null) {
+          super.writeStartArray();
+        } else {
+          super.writeStartArray(names[i]);
+        }
+      } else if (names[i] == null) {
+        super.writeStartObject();
+      } else {
+        super.writeStartObject(names[i]);
+      }
+
+      names[i] = null;
+    }
+
+    emitted = depth;
+  }
+
+  private JsonValue prune(final JsonValue value) {
+    if (isObject(value)) {
+      return pruneObject(value.asJsonObject());
+    }
+
+    return isArray(value) ? pruneArray(value.asJsonArray()) : value;
+  }
+
+  private JsonValue pruneArray(final JsonArray array) {
+    final JsonArrayBuilder builder = createArrayBuilder();
+    boolean empty = true;
+
+    for (final JsonValue value : array) {
+      final JsonValue pruned = prune(value);
+
+      if (pruned != null) {
+        builder.add(pruned);
+        empty = false;
+      }
+    }
+
+    return empty ? null : builder.build();
+  }
+
+  private JsonValue pruneObject(final JsonObject object) {
+    final JsonObjectBuilder builder = createObjectBuilder();
+    boolean empty = true;
+
+    for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
+      final JsonValue pruned =
+          removeNulls && isNull(entry.getValue()) ? null : prune(entry.getValue());
+
+      if (pruned != null) {
+        builder.add(entry.getKey(), pruned);
+        empty = false;
+      }
+    }
+
+    return empty ? null : builder.build();
+  }
+
+  private void push(final String name, final boolean array) {
+    if (depth == maxDepth) {
+      throw new JsonException("The nesting depth exceeds " + maxDepth);
+    }
+
+    if (depth == names.length) {
+      names = copyOf(names, depth * 2);
+      arrays = copyOf(arrays, depth * 2);
+    }
+
+    names[depth] = name;
+    arrays[depth++] = array;
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    if (key != null) {
+      final String name = key;
+
+      key = null;
+
+      return write(name, value);
+    }
+
+    final JsonValue pruned = prune(value);
+
+    if (depth == 0) {
+      super.write(pruned != null ? pruned : value);
+    } else if (pruned != null) { // Without a key it is an array element, which may be null.
+      emitPending();
+      super.write(pruned);
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    final JsonValue pruned = removeNulls && isNull(value) ? null : prune(value);
+
+    if (pruned != null) {
+      emitPending();
+      super.write(name, pruned);
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    --depth;
+
+    if (depth < emitted) {
+      emitted = depth;
+      super.writeEnd();
+    } else if (depth == 0) { // The top-level value is kept.
+      ++depth;
+      emitPending();
+      emitted = --depth;
+      super.writeEnd();
+    } else {
+      names[depth] = null;
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    key = name;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    return write(NULL);
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return write(name, NULL);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    push(key, true);
+    key = null;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    push(name, true);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    push(key, false);
+    key = null;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    push(name, false);
+
+    return this;
+  }
+}
@@ -0,0 +1,192 @@
+package net.pincette.json.filter;
+
+import static javax.json.JsonValue.NULL;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * A generator that publishes the elements of the top-level array it receives. It can be the last
+ * element of a filter chain. Nested objects and arrays are accumulated, so every published value is
+ * a complete element. The publisher completes at the end of the array or when the generator is
+ * closed. There is only one subscriber.
+ *
+ * <p>Elements for which there is no demand yet are buffered. When the buffer is full, the thread
+ * that writes to the generator blocks until the subscriber requests more. When the subscriber
+ * cancels, the remaining elements are dropped.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class PublishingGenerator extends JsonGeneratorFilter implements Publisher<JsonValue> {
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private final Deque<JsonValue> buffer = new ArrayDeque<>();
+  private final int capacity;
+  private boolean cancelled;
+  private boolean completed;
+  private boolean draining;
+  private long requested;
+  private boolean started;
+  private Subscriber<? super JsonValue> subscriber;
+
+  public PublishingGenerator() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates the generator.
+   *
+   * @param capacity the maximum number of elements that are buffered.
+   */
+  public PublishingGenerator(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity should be at least 1");
+    }
+
+    this.capacity = capacity;
+  }
+
+  @Override
+  public void close() {
+    complete();
+  }
+
+  private synchronized void complete() {
+    completed = true;
+    drain();
+  }
+
+  private synchronized void drain() {
+    if (draining || subscriber == null) {
+      return;
+    }
+
+    draining = true;
+
+    try {
+      while (requested > 0 && !buffer.isEmpty()) {
+        --requested;
+        subscriber.onNext(buffer.poll());
+      }
+
+      if (buffer.isEmpty() && completed && subscriber != null) {
+        final Subscriber<? super JsonValue> s = subscriber;
+
+        subscriber = null;
+        s.onComplete();
+      }
+    } finally {
+      draining = false;
+      notifyAll();
+    }
+  }
+
+  private synchronized void offer(final JsonValue value) {
+    while (buffer.size() >= capacity && !cancelled) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new JsonException(e.getMessage(), e);
+      }
+    }
+
+    if (!cancelled) {
+      buffer.add(value);
+      drain();
+    }
+  }
+
+  public synchronized void subscribe(final Subscriber<? super JsonValue> subscriber) {
+    if (cancelled) {
+      subscriber.onSubscribe(new Cancelled());
+      subscriber.onError(new IllegalStateException("The subscription has been cancelled"));
+    } else if (this.subscriber != null) {
+      subscriber.onSubscribe(new Cancelled());
+      subscriber.onError(new IllegalStateException("There is already a subscriber"));
+    } else {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(new Demand());
+      drain();
+    }
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    super.writeStartArray();
+
+    if (!started) {
+      started = true;
+      insertFilter(new Receiver());
+      insertFilter(new AccumulatingGeneratorFilter());
+    }
+
+    return this;
+  }
+
+  private static class Cancelled implements Subscription {
+    public void cancel() {
+      // Nothing to do.
+    }
+
+    public void request(final long n) {
+      // Nothing to do.
+    }
+  }
+
+  private class Demand implements Subscription {
+    public void cancel() {
+      synchronized (PublishingGenerator.this) {
+        cancelled = true;
+        subscriber = null;
+        buffer.clear();
+        PublishingGenerator.this.notifyAll();
+      }
+    }
+
+    public void request(final long n) {
+      synchronized (PublishingGenerator.this) {
+        if (n <= 0) {
+          final Subscriber<? super JsonValue> s = subscriber;
+
+          cancel();
+
+          if (s != null) {
+            s.onError(new IllegalArgumentException("The requested number should be positive"));
+          }
+        } else {
+          requested = requested + n < 0 ? Long.MAX_VALUE : (requested + n);
+          drain();
+        }
+      }
+    }
+  }
+
+  private class Receiver extends JsonGeneratorFilter {
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+      offer(value);
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+      complete();
+
+      return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+      return write(NULL);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package net.pincette.json.filter;
+
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static net.pincette.json.JsonUtil.getPathSegments;
+import static net.pincette.json.JsonUtil.isStructure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+
+/**
+ * Reads only the values at a set of paths from a parser. Everything else is skipped without
+ * building anything. A path is either a JSON pointer or a dot-separated path as used in <code>
+ * JsonUtil.get</code>. In the latter case array elements are selected with their index as a
+ * segment. The parser should be positioned before the value that is to be searched.
+ *
+ * <p>Reading stops as soon as all paths have been found. When a path is a prefix of another one,
+ * the longer one is looked up in the value of the shorter one.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class SelectingParser extends JsonParserWrapper {
+  private final Node root = new Node();
+  private int remaining;
+
+  /**
+   * Creates the selecting parser.
+   *
+   * @param delegate the parser that produces the events.
+   * @param paths the JSON pointers or dot-separated paths.
+   */
+  public SelectingParser(final JsonParser delegate, final Set<String> paths) {
+    super(delegate);
+    paths.forEach(this::add);
+  }
+
+  private static Optional<JsonValue> find(final JsonValue value, final String[] segments) {
+    JsonValue result = value;
+
+    for (final String segment : segments) {
+      result = isStructure(result) ? get((JsonStructure) result, segment) : null;
+
+      if (result == null) {
+        return Optional.empty();
+      }
+    }
+
+    return Optional.of(result);
+  }
+
+  private static JsonValue get(final JsonStructure structure, final String segment) {
+    if (structure.getValueType() == JsonValue.ValueType.OBJECT) {
+      return structure.asJsonObject().get(segment);
+    }
+
+    final int index = index(segment);
+
+    return index >= 0 && index < structure.asJsonArray().size()
+        ? structure.asJsonArray().get(index)
+        : null;
+  }
+
+  private static int index(final String segment) {
+    try {
+      return Integer.parseInt(segment);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void add(final String path) {
+    Node node = root;
+
+    for (final String segment : getPathSegments(path)) {
+      node = node.children.computeIfAbsent(segment, s -> new Node());
+    }
+
+    if (node.path == null) {
+      node.path = path;
+      ++remaining;
+    }
+  }
+
+  private void hit(
+      final Node node, final JsonValue value, final BiConsumer<String, JsonValue> hit) {
+    final List<Node> nodes = new ArrayList<>();
+
+    node.collect(nodes);
+
+    for (final Node n : nodes) {
+      find(value, n.relative(node)).ifPresent(v -> hit.accept(n.path, v));
+    }
+
+    remaining -= nodes.size();
+  }
+
+  /**
+   * Reads the values at the paths.
+   *
+   * @return The found values per path. Paths that were not found are not in the map.
+   */
+  public Map<String, JsonValue> select() {
+    final Map<String, JsonValue> result = new HashMap<>();
+
+    select(result::put);
+
+    return result;
+  }
+
+  /**
+   * Reads the values at the paths and calls <code>hit</code> for each found value.
+   *
+   * @param hit the function that receives the path and the value.
+   */
+  public void select(final BiConsumer<String, JsonValue> hit) {
+    if (remaining > 0 && hasNext()) {
+      visit(root, next(), hit);
+    }
+  }
+
+  private void skipValue(final Event event) {
+    if (event == START_OBJECT) {
+      skipObject();
+    } else if (event == START_ARRAY) {
+      skipArray();
+    }
+  }
+
+  private void visit(final Node node, final Event event, final BiConsumer<String, JsonValue> hit) {
+    if (node.path != null) {
+      hit(node, getValue(), hit);
+    } else if (event == START_OBJECT) {
+      visitObject(node, hit);
+    } else if (event == START_ARRAY) {
+      visitArray(node, hit);
+    }
+  }
+
+  private void visitArray(final Node node, final BiConsumer<String, JsonValue> hit) {
+    int index = 0;
+
+    while (remaining > 0 && hasNext()) {
+      final Event event = next();
+
+      if (event == END_ARRAY) {
+        return;
+      }
+
+      visitChild(node.children.get(String.valueOf(index++)), event, hit);
+    }
+  }
+
+  private void visitChild(
+      final Node child, final Event event, final BiConsumer<String, JsonValue> hit) {
+    if (child != null) {
+      visit(child, event, hit);
+    } else {
+      skipValue(event);
+    }
+  }
+
+  private void visitObject(final Node node, final BiConsumer<String, JsonValue> hit) {
+    while (remaining > 0 && hasNext()) {
+      if (next() == END_OBJECT) {
+        return;
+      }
+
+      final Node child = node.children.get(getString());
+
+      visitChild(child, next(), hit);
+    }
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private Node parent;
+    private String path;
+    private String segment;
+
+    private Node() {}
+
+    private void collect(final List<Node> nodes) {
+      if (path != null) {
+        nodes.add(this);
+      }
+
+      children.forEach(
+          (k, v) -> {
+            v.parent = this;
+            v.segment = k;
+            v.collect(nodes);
+          });
+    }
+
+    private String[] relative(final Node ancestor) {
+      final List<String> segments = new ArrayList<>();
+
+      for (Node n = this; n != ancestor; n = n.parent) {
+        segments.add(0, n.segment);
+      }
+
+      return segments.toArray(String[]::new);
+    }
+  }
+}
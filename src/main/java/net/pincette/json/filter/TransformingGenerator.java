@@ -0,0 +1,257 @@
+package net.pincette.json.filter;
+
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.JsonUtil.createArrayBuilder;
+import static net.pincette.json.JsonUtil.createObjectBuilder;
+import static net.pincette.json.JsonUtil.isArray;
+import static net.pincette.json.JsonUtil.isObject;
+import static net.pincette.json.Transform.transform;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Predicate;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import net.pincette.json.Transform.Transformer;
+
+/**
+ * Runs a <code>Transformer</code> chain while the events stream through. The paths are built in the
+ * same way as <code>Transform.transform</code> does, so the same transformers can be used. The
+ * elements of arrays don't add a segment to the path.
+ *
+ * <p>A transformer can only test an entry when it has its value. Fields with a scalar value are
+ * always given to the transformers. A field with an object or an array as its value is only built
+ * and given to the transformers when its path is accepted by the <code>materialize</code>
+ * predicate. Otherwise, the events of its value stream through and its own fields are transformed
+ * one by one. This is why the predicate should accept the paths of all structures that a
+ * transformer may match, such as the path of a <code>removeTransformer</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class TransformingGenerator extends JsonGeneratorFilter {
+  private final Predicate<String> materialize;
+  private final Deque<String> paths = new ArrayDeque<>();
+  private final String pathDelimiter;
+  private final Transformer transformer;
+  private JsonTreeGenerator builder;
+  private String builderKey;
+  private int depth;
+  private String key;
+
+  /**
+   * Creates the filter with the dot as the path delimiter.
+   *
+   * @param transformer the transformer chain.
+   * @param materialize the predicate that selects the paths of the fields with an object or array
+   *     value that should be given to the transformers.
+   */
+  public TransformingGenerator(final Transformer transformer, final Predicate<String> materialize) {
+    this(transformer, materialize, ".");
+  }
+
+  /**
+   * Creates the filter.
+   *
+   * @param transformer the transformer chain.
+   * @param materialize the predicate that selects the paths of the fields with an object or array
+   *     value that should be given to the transformers.
+   * @param pathDelimiter separates the path segments in the <code>JsonEntry</code> objects.
+   */
+  public TransformingGenerator(
+      final Transformer transformer,
+      final Predicate<String> materialize,
+      final String pathDelimiter) {
+    this.transformer = transformer;
+    this.materialize = materialize;
+    this.pathDelimiter = pathDelimiter;
+  }
+
+  private void endField() {
+    final JsonValue value = builder.build();
+    final String name = builderKey;
+
+    builder = null;
+    builderKey = null;
+    removeAccumulator();
+    field(name, value);
+  }
+
+  private void field(final String name, final JsonValue value) {
+    transform(createObjectBuilder().add(name, value).build(), parent(), transformer, pathDelimiter)
+        .forEach(super::write);
+  }
+
+  private String parent() {
+    return paths.isEmpty() ? "" : paths.peek();
+  }
+
+  private String path(final String name) {
+    final String parent = parent();
+
+    return parent.isEmpty() ? name : (parent + pathDelimiter + name);
+  }
+
+  private void start(final String name, final Runnable forward, final Runnable anonymous) {
+    if (builder != null) {
+      ++depth;
+      forward.run();
+    } else if (name != null) {
+      final String path = path(name);
+
+      if (materialize.test(path)) {
+        builder = new JsonTreeGenerator();
+        builderKey = name;
+        depth = 1;
+        insertAccumulator(builder);
+        anonymous.run();
+      } else {
+        paths.push(path);
+        forward.run();
+      }
+    } else {
+      paths.push(parent());
+      forward.run();
+    }
+  }
+
+  private String takeKey() {
+    final String k = key;
+
+    key = null;
+
+    return k;
+  }
+
+  private JsonValue transformElement(final JsonValue value) {
+    if (isObject(value)) {
+      return transform(value.asJsonObject(), parent(), transformer, pathDelimiter);
+    }
+
+    if (isArray(value)) {
+      final JsonArrayBuilder array = createArrayBuilder();
+
+      value.asJsonArray().forEach(v -> array.add(transformElement(v)));
+
+      return array.build();
+    }
+
+    return value;
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    if (builder != null) {
+      return super.write(value);
+    }
+
+    final String name = takeKey();
+
+    if (name != null) {
+      field(name, value);
+    } else {
+      super.write(transformElement(value));
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    if (builder != null) {
+      return super.write(name, value);
+    }
+
+    field(name, value);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    if (builder != null) {
+      super.writeEnd();
+
+      if (--depth == 0) {
+        endField();
+      }
+    } else {
+      paths.pop();
+      super.writeEnd();
+    }
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    if (builder != null) {
+      return super.writeKey(name);
+    }
+
+    key = name;
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    return builder != null ? super.writeNull() : write(NULL);
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    return builder != null ? super.writeNull(name) : write(name, NULL);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    final String name = builder != null ? null : takeKey();
+
+    start(
+        name,
+        () -> {
+          if (name != null) {
+            super.writeStartArray(name);
+          } else {
+            super.writeStartArray();
+          }
+        },
+        super::writeStartArray);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    start(name, () -> super.writeStartArray(name), super::writeStartArray);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    final String name = builder != null ? null : takeKey();
+
+    start(
+        name,
+        () -> {
+          if (name != null) {
+            super.writeStartObject(name);
+          } else {
+            super.writeStartObject();
+          }
+        },
+        super::writeStartObject);
+
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    start(name, () -> super.writeStartObject(name), super::writeStartObject);
+
+    return this;
+  }
+}
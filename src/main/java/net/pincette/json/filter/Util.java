@@ -21,6 +21,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParser;
@@ -33,6 +34,9 @@ import net.pincette.json.JsonUtil;
  * @author Werner Donné
  */
 public class Util {
+  private static final int MAX_INT_DIGITS = 9;
+  private static final int MAX_LONG_DIGITS = 18;
+
   private Util() {}
 
   /**
@@ -137,6 +141,16 @@ public class Util {
     throw new IllegalStateException("Expecting end of object or array");
   }
 
+  /** Estimates the number of characters of the JSON text of a value without serializing strings. */
+  static long estimateSize(final JsonValue value) {
+    return switch (value.getValueType()) {
+      case STRING -> ((JsonString) value).getString().length() + 2L;
+      case TRUE, NULL -> 4;
+      case FALSE -> 5;
+      default -> value.toString().length();
+    };
+  }
+
   /**
    * Reads one array from <code>parser</code>, which must be in the state <code>START_ARRAY</code>.
    *
@@ -144,9 +158,9 @@ public class Util {
    * @return The read array.
    */
   public static JsonArray getArray(final JsonParser parser) {
-    return Optional.of(new JsonBuilderGenerator())
+    return Optional.of(new JsonTreeGenerator())
         .map(generator -> addArray(parser, generator))
-        .map(generator -> ((JsonBuilderGenerator) generator).build())
+        .map(generator -> ((JsonTreeGenerator) generator).build())
         .filter(JsonUtil::isArray)
         .map(JsonValue::asJsonArray)
         .orElseThrow(IllegalStateException::new);
@@ -160,9 +174,9 @@ public class Util {
    * @return The read object.
    */
   public static JsonObject getObject(final JsonParser parser) {
-    return Optional.of(new JsonBuilderGenerator())
+    return Optional.of(new JsonTreeGenerator())
         .map(generator -> addObject(parser, generator))
-        .map(generator -> ((JsonBuilderGenerator) generator).build())
+        .map(generator -> ((JsonTreeGenerator) generator).build())
         .filter(JsonUtil::isObject)
         .map(JsonValue::asJsonObject)
         .orElseThrow(IllegalStateException::new);
@@ -176,11 +190,65 @@ public class Util {
       case START_OBJECT -> getObject(parser);
       case VALUE_TRUE -> TRUE;
       case VALUE_FALSE -> FALSE;
-      case VALUE_NUMBER -> createValue(parser.getBigDecimal());
+      case VALUE_NUMBER -> getNumber(parser);
       default -> null;
     };
   }
 
+  private static JsonValue getNumber(final JsonParser parser) {
+    if (isInt(parser)) {
+      return createValue(parser.getInt());
+    }
+
+    return isLong(parser) ? createValue(parser.getLong()) : createValue(parser.getBigDecimal());
+  }
+
+  /**
+   * A Jackson parser knows the size of an integer from the token. For other parsers the number of
+   * characters is used, which is conservative, but always correct.
+   */
+  private static boolean isInt(final JsonParser parser) {
+    if (parser instanceof JacksonParser jacksonParser) {
+      return jacksonParser.isIntNumber();
+    }
+
+    return parser instanceof JsonParserWrapper wrapper
+        ? isInt(wrapper.getDelegate())
+        : parser.isIntegralNumber() && parser.getString().length() <= MAX_INT_DIGITS;
+  }
+
+  private static boolean isLong(final JsonParser parser) {
+    if (parser instanceof JacksonParser jacksonParser) {
+      return jacksonParser.isLongNumber();
+    }
+
+    return parser instanceof JsonParserWrapper wrapper
+        ? isLong(wrapper.getDelegate())
+        : parser.isIntegralNumber() && parser.getString().length() <= MAX_LONG_DIGITS;
+  }
+
+  /**
+   * Skips all events until the end of the current array or object, without creating anything. If
+   * the parser is in the state <code>START_ARRAY</code> or <code>START_OBJECT</code>, that
+   * structure is skipped. Otherwise the rest of the enclosing structure is skipped.
+   *
+   * @param parser the given parser.
+   * @since 2.2
+   */
+  public static void skip(final JsonParser parser) {
+    int depth = 1;
+
+    while (depth > 0 && parser.hasNext()) {
+      final Event e = parser.next();
+
+      if (e == START_ARRAY || e == START_OBJECT) {
+        ++depth;
+      } else if (e == END_ARRAY || e == END_OBJECT) {
+        --depth;
+      }
+    }
+  }
+
   /**
    * Produces a stream from the <code>parser</code>. If the parser offers an object then the stream
    * consists of one element. If it offers an array the stream consists of the elements in the
@@ -258,7 +326,7 @@ public class Util {
         generator.writeNull();
         break;
       case VALUE_NUMBER:
-        generator.write(parser.getBigDecimal());
+        writeNumber(parser, generator);
         break;
       case VALUE_STRING:
         generator.write(parser.getString());
@@ -270,4 +338,14 @@ public class Util {
 
     return generator;
   }
+
+  private static void writeNumber(final JsonParser parser, final JsonGenerator generator) {
+    if (isInt(parser)) {
+      generator.write(parser.getInt());
+    } else if (isLong(parser)) {
+      generator.write(parser.getLong());
+    } else {
+      generator.write(parser.getBigDecimal());
+    }
+  }
 }
@@ -0,0 +1,353 @@
+package net.pincette.json.filter;
+
+import static javax.json.JsonValue.NULL;
+import static net.pincette.json.JsonUtil.isArray;
+import static net.pincette.json.JsonUtil.isObject;
+import static net.pincette.json.Validate.getValidator;
+import static net.pincette.json.Validate.validateField;
+import static net.pincette.json.filter.Util.writeEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import net.pincette.json.Validate;
+import net.pincette.json.Validate.ValidationContext;
+import net.pincette.json.Validate.ValidationError;
+import net.pincette.json.Validate.Validator;
+
+/**
+ * Validates the events that stream through with the same validators, messages and mandatory fields
+ * as <code>Validate.validate</code>, but without building an annotated copy. The events are passed
+ * on unchanged. The errors are collected in a list instead.
+ *
+ * <p>Only the fields for which there is a validator are built, because a validator needs the value.
+ * The other fields are checked while their events pass by. When the validator of an object or array
+ * accepts it, its contents are validated as well. The elements of arrays don't add a segment to the
+ * path.
+ *
+ * <p>When the filter stops at the first error, the remaining events are still passed on, but they
+ * are not validated anymore. The method <code>validate(JsonParser)</code> stops reading then.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class ValidatingGenerator extends JsonGeneratorFilter {
+  private final ValidationContext context;
+  private final List<ValidationError> errors = new ArrayList<>();
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  private final Set<String> mandatory;
+  private final Map<String, Set<String>> mandatoryKeys = new HashMap<>();
+  private final Map<String, String> messages;
+  private final String missingMessage;
+  private final boolean stopAtFirstError;
+  private final Map<String, Validator> validators;
+  private JsonTreeGenerator builder;
+  private String builderField;
+  private int depth;
+  private String key;
+
+  /**
+   * Creates the filter.
+   *
+   * @param context the context information which is passed to each validator.
+   * @param validators maps dot-separated fields to validator functions.
+   * @param messages maps dot-separated fields to error messages.
+   * @param mandatory the set of dot-separated fields that must appear. See also <code>
+   *     Validate.validate</code>.
+   * @param missingMessage a general error message for missing fields.
+   * @param stopAtFirstError when set, the validation stops after the first error.
+   */
+  public ValidatingGenerator(
+      final ValidationContext context,
+      final Map<String, Validator> validators,
+      final Map<String, String> messages,
+      final Set<String> mandatory,
+      final String missingMessage,
+      final boolean stopAtFirstError) {
+    this.context = context;
+    this.validators = validators;
+    this.messages = messages;
+    this.mandatory = mandatory;
+    this.missingMessage = missingMessage;
+    this.stopAtFirstError = stopAtFirstError;
+  }
+
+  private static String path(final String parent, final String name) {
+    return parent != null ? (parent + "." + name) : name;
+  }
+
+  private void checkField(final String parent, final String name, final JsonValue value) {
+    final String field = path(parent, name);
+
+    validateField(field, value, context, validators, messages)
+        .ifPresentOrElse(message -> error(field, message, value), () -> checkValue(field, value));
+  }
+
+  private void checkObject(final String parent, final JsonObject obj) {
+    for (final Map.Entry<String, JsonValue> entry : obj.entrySet()) {
+      if (isStopped()) {
+        return;
+      }
+
+      checkField(parent, entry.getKey(), entry.getValue());
+    }
+
+    getMandatoryKeys(parent).stream()
+        .filter(k -> !obj.containsKey(k))
+        .forEach(k -> error(path(parent, k), missingMessage, null));
+  }
+
+  private void checkValue(final String parent, final JsonValue value) {
+    if (isObject(value)) {
+      checkObject(parent, value.asJsonObject());
+    } else if (isArray(value)) {
+      for (final JsonValue v : value.asJsonArray()) {
+        if (isStopped()) {
+          return;
+        }
+
+        checkValue(parent, v);
+      }
+    }
+  }
+
+  private void endField() {
+    final JsonValue value = builder.build();
+    final String field = builderField;
+
+    builder = null;
+    builderField = null;
+
+    validateField(field, value, context, validators, messages)
+        .ifPresentOrElse(message -> error(field, message, value), () -> checkValue(field, value));
+  }
+
+  private void error(final String path, final String message, final JsonValue value) {
+    if (!isStopped()) {
+      errors.add(new ValidationError(path, message, value));
+    }
+  }
+
+  /**
+   * Returns the errors that have been found so far.
+   *
+   * @return The list of errors.
+   */
+  public List<ValidationError> getErrors() {
+    return errors;
+  }
+
+  private Set<String> getMandatoryKeys(final String parent) {
+    return mandatoryKeys.computeIfAbsent(
+        parent != null ? parent : "", p -> Validate.getMandatoryKeys(mandatory, parent));
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+
+  private boolean isStopped() {
+    return stopAtFirstError && !errors.isEmpty();
+  }
+
+  private String name(final String name) {
+    if (frames.isEmpty() || frames.peek().missing == null) {
+      return null;
+    }
+
+    final String n = name != null ? name : takeKey();
+
+    frames.peek().missing.remove(n);
+
+    return n;
+  }
+
+  private String parent() {
+    return frames.isEmpty() ? null : frames.peek().path;
+  }
+
+  private void start(final String name, final boolean array) {
+    if (builder != null) {
+      ++depth;
+      startBuilder(name, array);
+
+      return;
+    }
+
+    if (isStopped()) {
+      return;
+    }
+
+    final String n = name(name);
+    final String field = n != null ? path(parent(), n) : parent();
+
+    if (n != null && getValidator(validators, field) != null) {
+      builder = new JsonTreeGenerator();
+      builderField = field;
+      depth = 1;
+      startBuilder(null, array);
+    } else {
+      frames.push(new Frame(field, array ? null : new HashSet<>(getMandatoryKeys(field))));
+    }
+  }
+
+  private void startBuilder(final String name, final boolean array) {
+    if (array) {
+      if (name != null) {
+        builder.writeStartArray(name);
+      } else {
+        builder.writeStartArray();
+      }
+    } else if (name != null) {
+      builder.writeStartObject(name);
+    } else {
+      builder.writeStartObject();
+    }
+  }
+
+  private String takeKey() {
+    final String k = key;
+
+    key = null;
+
+    return k;
+  }
+
+  /**
+   * Reads all events from <code>parser</code> and writes them to this filter. When the filter stops
+   * at the first error, it stops reading as soon as an error is found.
+   *
+   * @param parser the given parser.
+   * @return The errors.
+   */
+  public List<ValidationError> validate(final JsonParser parser) {
+    while (parser.hasNext() && !isStopped()) {
+      writeEvent(parser.next(), parser, this);
+    }
+
+    return getErrors();
+  }
+
+  private void value(final String name, final JsonValue value) {
+    if (builder != null) {
+      if (name != null) {
+        builder.write(name, value);
+      } else {
+        builder.write(value);
+      }
+    } else if (!isStopped()) {
+      final String n = name(name);
+
+      if (n != null) {
+        checkField(parent(), n, value);
+      } else {
+        checkValue(parent(), value);
+      }
+    }
+  }
+
+  @Override
+  public JsonGenerator write(final JsonValue value) {
+    value(null, value);
+
+    return super.write(value);
+  }
+
+  @Override
+  public JsonGenerator write(final String name, final JsonValue value) {
+    value(name, value);
+
+    return super.write(name, value);
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    if (builder != null) {
+      builder.writeEnd();
+
+      if (--depth == 0) {
+        endField();
+      }
+    } else if (!frames.isEmpty()) {
+      final Frame frame = frames.pop();
+
+      if (frame.missing != null) {
+        frame.missing.forEach(k -> error(path(frame.path, k), missingMessage, null));
+      }
+    }
+
+    return super.writeEnd();
+  }
+
+  @Override
+  public JsonGenerator writeKey(final String name) {
+    if (builder != null) {
+      builder.writeKey(name);
+    } else {
+      key = name;
+    }
+
+    return super.writeKey(name);
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    value(null, NULL);
+
+    return super.writeNull();
+  }
+
+  @Override
+  public JsonGenerator writeNull(final String name) {
+    value(name, NULL);
+
+    return super.writeNull(name);
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    start(null, true);
+
+    return super.writeStartArray();
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(final String name) {
+    start(name, true);
+
+    return super.writeStartArray(name);
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    start(null, false);
+
+    return super.writeStartObject();
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(final String name) {
+    start(name, false);
+
+    return super.writeStartObject(name);
+  }
+
+  private static class Frame {
+    private final Set<String> missing;
+    private final String path;
+
+    private Frame(final String path, final Set<String> missing) {
+      this.path = path;
+      this.missing = missing;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package net.pincette.json.value;
+
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.TRUE;
+
+import java.util.AbstractList;
+import java.util.List;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Implements the accessors of <code>JsonArray</code> with <code>get</code> and <code>size</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+abstract class AbstractJsonArray extends AbstractList<JsonValue> implements JsonArray {
+  static boolean getBoolean(final JsonValue value) {
+    if (TRUE.equals(value)) {
+      return true;
+    }
+
+    if (FALSE.equals(value)) {
+      return false;
+    }
+
+    throw new ClassCastException("The value " + value + " is not a boolean");
+  }
+
+  static boolean isBoolean(final JsonValue value) {
+    return TRUE.equals(value) || FALSE.equals(value);
+  }
+
+  private JsonValue getOrNull(final int index) {
+    return index >= 0 && index < size() ? get(index) : null;
+  }
+
+  public boolean getBoolean(final int index) {
+    return getBoolean(get(index));
+  }
+
+  public boolean getBoolean(final int index, final boolean defaultValue) {
+    final JsonValue value = getOrNull(index);
+
+    return value != null && isBoolean(value) ? getBoolean(value) : defaultValue;
+  }
+
+  public int getInt(final int index) {
+    return getJsonNumber(index).intValue();
+  }
+
+  public int getInt(final int index, final int defaultValue) {
+    return getOrNull(index) instanceof JsonNumber number ? number.intValue() : defaultValue;
+  }
+
+  public JsonArray getJsonArray(final int index) {
+    return (JsonArray) get(index);
+  }
+
+  public JsonNumber getJsonNumber(final int index) {
+    return (JsonNumber) get(index);
+  }
+
+  public JsonObject getJsonObject(final int index) {
+    return (JsonObject) get(index);
+  }
+
+  public JsonString getJsonString(final int index) {
+    return (JsonString) get(index);
+  }
+
+  public String getString(final int index) {
+    return getJsonString(index).getString();
+  }
+
+  public String getString(final int index, final String defaultValue) {
+    return getOrNull(index) instanceof JsonString s ? s.getString() : defaultValue;
+  }
+
+  public ValueType getValueType() {
+    return ValueType.ARRAY;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends JsonValue> List<T> getValuesAs(final Class<T> clazz) {
+    return (List<T>) this;
+  }
+
+  public boolean isNull(final int index) {
+    return get(index).getValueType() == ValueType.NULL;
+  }
+
+  @Override
+  public String toString() {
+    return Text.toString(this);
+  }
+}
@@ -0,0 +1,83 @@
+package net.pincette.json.value;
+
+import static net.pincette.json.value.AbstractJsonArray.isBoolean;
+
+import java.util.AbstractMap;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Implements the accessors of <code>JsonObject</code> with <code>get</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+abstract class AbstractJsonObject extends AbstractMap<String, JsonValue> implements JsonObject {
+  private JsonValue existing(final String name) {
+    final JsonValue value = get(name);
+
+    if (value == null) {
+      throw new NullPointerException("The field " + name + " doesn't exist");
+    }
+
+    return value;
+  }
+
+  public boolean getBoolean(final String name) {
+    return AbstractJsonArray.getBoolean(existing(name));
+  }
+
+  public boolean getBoolean(final String name, final boolean defaultValue) {
+    final JsonValue value = get(name);
+
+    return value != null && isBoolean(value) ? AbstractJsonArray.getBoolean(value) : defaultValue;
+  }
+
+  public int getInt(final String name) {
+    return getJsonNumber(name).intValue();
+  }
+
+  public int getInt(final String name, final int defaultValue) {
+    return get(name) instanceof JsonNumber number ? number.intValue() : defaultValue;
+  }
+
+  public JsonArray getJsonArray(final String name) {
+    return (JsonArray) get(name);
+  }
+
+  public JsonNumber getJsonNumber(final String name) {
+    return (JsonNumber) get(name);
+  }
+
+  public JsonObject getJsonObject(final String name) {
+    return (JsonObject) get(name);
+  }
+
+  public JsonString getJsonString(final String name) {
+    return (JsonString) get(name);
+  }
+
+  public String getString(final String name) {
+    return getJsonString(name).getString();
+  }
+
+  public String getString(final String name, final String defaultValue) {
+    return get(name) instanceof JsonString s ? s.getString() : defaultValue;
+  }
+
+  public ValueType getValueType() {
+    return ValueType.OBJECT;
+  }
+
+  public boolean isNull(final String name) {
+    return existing(name).getValueType() == ValueType.NULL;
+  }
+
+  @Override
+  public String toString() {
+    return Text.toString(this);
+  }
+}
@@ -0,0 +1,311 @@
+package net.pincette.json.value;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+
+import java.math.BigDecimal;
+import javax.json.JsonException;
+import javax.json.JsonValue;
+
+/**
+ * Finds the boundaries of values in UTF-8 encoded JSON text and decodes scalars. The positions are
+ * byte offsets and the end positions are exclusive.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class ByteScanner {
+  private static final int MAX_LONG_DIGITS = 18;
+
+  private ByteScanner() {}
+
+  private static int digit(final byte[] bytes, final int position) {
+    final int c = bytes[position];
+
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+
+    if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    }
+
+    if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+
+    throw error("Invalid hexadecimal digit", position);
+  }
+
+  private static char escape(final byte c, final int position) {
+    return switch (c) {
+      case '"', '\\', '/' -> (char) c;
+      case 'b' -> '\b';
+      case 'f' -> '\f';
+      case 'n' -> '\n';
+      case 'r' -> '\r';
+      case 't' -> '\t';
+      default -> throw error("Invalid escape", position);
+    };
+  }
+
+  static JsonException error(final String message, final int position) {
+    return new JsonException(message + " at byte " + position);
+  }
+
+  static int expect(final byte[] bytes, final int position, final int end, final char c) {
+    if (position >= end || bytes[position] != c) {
+      throw error("Expected '" + c + "'", position);
+    }
+
+    return position + 1;
+  }
+
+  private static boolean isDelimiter(final byte c) {
+    return c == ',' || c == ':' || c == ']' || c == '}' || isWhitespace(c);
+  }
+
+  /**
+   * Checks the grammar of JSON numbers, which is stricter than the one of <code>BigDecimal</code>.
+   */
+  private static boolean isNumber(final byte[] bytes, final int start, final int end) {
+    final int integer = start < end && bytes[start] == '-' ? (start + 1) : start;
+    int i = skipDigits(bytes, integer, end);
+
+    if (i == integer || (bytes[integer] == '0' && i - integer > 1)) {
+      return false;
+    }
+
+    if (i < end && bytes[i] == '.') {
+      final int fraction = i + 1;
+
+      i = skipDigits(bytes, fraction, end);
+
+      if (i == fraction) {
+        return false;
+      }
+    }
+
+    if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+      final int exponent =
+          i + 1 < end && (bytes[i + 1] == '+' || bytes[i + 1] == '-') ? (i + 2) : (i + 1);
+
+      i = skipDigits(bytes, exponent, end);
+
+      if (i == exponent) {
+        return false;
+      }
+    }
+
+    return i == end;
+  }
+
+  static boolean isStructure(final byte[] bytes, final int position) {
+    return bytes[position] == '{' || bytes[position] == '[';
+  }
+
+  private static boolean isWhitespace(final byte c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  private static JsonValue literal(
+      final byte[] bytes, final int start, final int end, final String literal) {
+    if (end - start != literal.length()) {
+      throw error("Invalid literal", start);
+    }
+
+    for (int i = 0; i < literal.length(); ++i) {
+      if (bytes[start + i] != literal.charAt(i)) {
+        throw error("Invalid literal", start);
+      }
+    }
+
+    return switch (literal) {
+      case "true" -> TRUE;
+      case "false" -> FALSE;
+      default -> NULL;
+    };
+  }
+
+  private static JsonValue number(final byte[] bytes, final int start, final int end) {
+    final boolean negative = bytes[start] == '-';
+    final int first = negative ? start + 1 : start;
+
+    if (first < end && end - first <= MAX_LONG_DIGITS) {
+      long result = 0;
+      int i = first;
+
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        result = result * 10 + (bytes[i++] - '0');
+      }
+
+      if (i == end && (bytes[first] != '0' || end - first == 1)) {
+        final long value = negative ? -result : result;
+
+        return value == (int) value ? CompactNumber.of((int) value) : CompactNumber.of(value);
+      }
+    }
+
+    if (!isNumber(bytes, start, end)) {
+      throw error("Invalid number", start);
+    }
+
+    try {
+      return CompactNumber.of(new BigDecimal(new String(bytes, start, end - start, UTF_8)));
+    } catch (NumberFormatException e) {
+      throw error("Invalid number", start);
+    }
+  }
+
+  private static int skipDigits(final byte[] bytes, final int position, final int end) {
+    int i = position;
+
+    while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+      ++i;
+    }
+
+    return i;
+  }
+
+  /** Skips the object or array that starts at <code>position</code>. */
+  private static int skipStructure(final byte[] bytes, final int position, final int end) {
+    int depth = 0;
+    int i = position;
+
+    while (i < end) {
+      switch (bytes[i]) {
+        case '"' -> i = skipString(bytes, i, end) - 1;
+        case '{', '[' -> ++depth;
+        case '}', ']' -> {
+          if (--depth == 0) {
+            return i + 1;
+          }
+        }
+        default -> {}
+      }
+
+      ++i;
+    }
+
+    throw error("Unterminated structure", position);
+  }
+
+  /** Skips the string that starts with the quote at <code>position</code>. */
+  static int skipString(final byte[] bytes, final int position, final int end) {
+    for (int i = position + 1; i < end; ++i) {
+      if (bytes[i] == '\\') {
+        ++i;
+      } else if (bytes[i] == '"') {
+        return i + 1;
+      }
+    }
+
+    throw error("Unterminated string", position);
+  }
+
+  /** Skips the value that starts at <code>position</code> without decoding it. */
+  static int skipValue(final byte[] bytes, final int position, final int end) {
+    if (position >= end) {
+      throw error("Expected a value", position);
+    }
+
+    return switch (bytes[position]) {
+      case '{', '[' -> skipStructure(bytes, position, end);
+      case '"' -> skipString(bytes, position, end);
+      default -> {
+        int i = position;
+
+        while (i < end && !isDelimiter(bytes[i])) {
+          ++i;
+        }
+
+        if (i == position) {
+          throw error("Expected a value", position);
+        }
+
+        yield i;
+      }
+    };
+  }
+
+  static int skipWhitespace(final byte[] bytes, final int position, final int end) {
+    int i = position;
+
+    while (i < end && isWhitespace(bytes[i])) {
+      ++i;
+    }
+
+    return i;
+  }
+
+  /** Decodes the string between the quotes at <code>start</code> and <code>end - 1</code>. */
+  static String string(final byte[] bytes, final int start, final int end) {
+    final int last = end - 1;
+    int run = start + 1;
+
+    while (run < last && bytes[run] != '\\') {
+      ++run;
+    }
+
+    if (run == last) {
+      return new String(bytes, start + 1, last - start - 1, UTF_8);
+    }
+
+    final StringBuilder builder = new StringBuilder(last - start);
+
+    builder.append(new String(bytes, start + 1, run - start - 1, UTF_8));
+
+    for (int i = run; i < last; ) {
+      if (bytes[i] == '\\') {
+        if (i + 1 >= last) {
+          throw error("Invalid escape", i);
+        }
+
+        if (bytes[i + 1] == 'u') {
+          if (i + 6 > last) {
+            throw error("Invalid escape", i);
+          }
+
+          builder.append(
+              (char)
+                  ((digit(bytes, i + 2) << 12)
+                      | (digit(bytes, i + 3) << 8)
+                      | (digit(bytes, i + 4) << 4)
+                      | digit(bytes, i + 5)));
+          i += 6;
+        } else {
+          builder.append(escape(bytes[i + 1], i));
+          i += 2;
+        }
+      } else {
+        final int s = i;
+
+        while (i < last && bytes[i] != '\\') {
+          ++i;
+        }
+
+        builder.append(new String(bytes, s, i - s, UTF_8));
+      }
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Returns the value between <code>start</code> and <code>end</code>. Objects and arrays become
+   * views on the bytes, while scalars are decoded.
+   */
+  static JsonValue value(final byte[] bytes, final int start, final int end) {
+    return switch (bytes[start]) {
+      case '{' -> new LazyObject(bytes, start, end);
+      case '[' -> new LazyArray(bytes, start, end);
+      case '"' -> CompactString.of(string(bytes, start, end));
+      case 't' -> literal(bytes, start, end, "true");
+      case 'f' -> literal(bytes, start, end, "false");
+      case 'n' -> literal(bytes, start, end, "null");
+      default -> number(bytes, start, end);
+    };
+  }
+}
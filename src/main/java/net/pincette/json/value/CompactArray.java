@@ -0,0 +1,35 @@
+package net.pincette.json.value;
+
+import javax.json.JsonValue;
+
+/**
+ * An immutable JSON array that keeps its elements in an array of the exact size.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactArray extends AbstractJsonArray {
+  static final CompactArray EMPTY = new CompactArray(new JsonValue[0]);
+
+  private final JsonValue[] values;
+
+  /** The array is taken over, so it should not be changed anymore. */
+  CompactArray(final JsonValue[] values) {
+    this.values = values;
+  }
+
+  @Override
+  public JsonValue get(final int index) {
+    return values[index];
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public Object[] toArray() {
+    return values.clone();
+  }
+}
@@ -0,0 +1,251 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Objects.checkIndex;
+import static java.util.Objects.requireNonNull;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Collects the elements in an array. The builder is empty again after <code>build</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactArrayBuilder implements JsonArrayBuilder {
+  private static final int INITIAL_SIZE = 8;
+
+  private int size;
+  private JsonValue[] values = new JsonValue[INITIAL_SIZE];
+
+  private static JsonValue value(final String value) {
+    return CompactString.of(requireNonNull(value));
+  }
+
+  private static JsonValue value(final BigInteger value) {
+    return CompactNumber.of(new BigDecimal(value));
+  }
+
+  private static JsonValue value(final BigDecimal value) {
+    return CompactNumber.of(requireNonNull(value));
+  }
+
+  private static JsonValue value(final double value) {
+    return CompactNumber.of(BigDecimal.valueOf(value));
+  }
+
+  private static JsonValue value(final boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  public JsonArrayBuilder add(final JsonValue value) {
+    requireNonNull(value);
+
+    if (size == values.length) {
+      values = copyOf(values, size * 2);
+    }
+
+    values[size++] = value;
+
+    return this;
+  }
+
+  public JsonArrayBuilder add(final String value) {
+    return add(value(value));
+  }
+
+  public JsonArrayBuilder add(final BigDecimal value) {
+    return add(value(value));
+  }
+
+  public JsonArrayBuilder add(final BigInteger value) {
+    return add(value(value));
+  }
+
+  public JsonArrayBuilder add(final int value) {
+    return add(CompactNumber.of(value));
+  }
+
+  public JsonArrayBuilder add(final long value) {
+    return add(CompactNumber.of(value));
+  }
+
+  public JsonArrayBuilder add(final double value) {
+    return add(value(value));
+  }
+
+  public JsonArrayBuilder add(final boolean value) {
+    return add(value(value));
+  }
+
+  public JsonArrayBuilder add(final JsonObjectBuilder builder) {
+    return add(builder.build());
+  }
+
+  public JsonArrayBuilder add(final JsonArrayBuilder builder) {
+    return add(builder.build());
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final JsonValue value) {
+    checkIndex(index, size + 1);
+    requireNonNull(value);
+
+    if (size == values.length) {
+      values = copyOf(values, size * 2);
+    }
+
+    System.arraycopy(values, index, values, index + 1, size - index);
+    values[index] = value;
+    ++size;
+
+    return this;
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final String value) {
+    return add(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final BigDecimal value) {
+    return add(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final BigInteger value) {
+    return add(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final int value) {
+    return add(index, CompactNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final long value) {
+    return add(index, CompactNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final double value) {
+    return add(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final boolean value) {
+    return add(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final JsonObjectBuilder builder) {
+    return add(index, builder.build());
+  }
+
+  @Override
+  public JsonArrayBuilder add(final int index, final JsonArrayBuilder builder) {
+    return add(index, builder.build());
+  }
+
+  @Override
+  public JsonArrayBuilder addAll(final JsonArrayBuilder builder) {
+    builder.build().forEach(this::add);
+
+    return this;
+  }
+
+  public JsonArrayBuilder addNull() {
+    return add(NULL);
+  }
+
+  @Override
+  public JsonArrayBuilder addNull(final int index) {
+    return add(index, NULL);
+  }
+
+  public JsonArray build() {
+    final JsonArray result =
+        size == 0 ? CompactArray.EMPTY : new CompactArray(copyOf(values, size));
+
+    fill(values, 0, size, null);
+    size = 0;
+
+    return result;
+  }
+
+  @Override
+  public JsonArrayBuilder remove(final int index) {
+    checkIndex(index, size);
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    values[--size] = null;
+
+    return this;
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final JsonValue value) {
+    checkIndex(index, size);
+    values[index] = requireNonNull(value);
+
+    return this;
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final String value) {
+    return set(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final BigDecimal value) {
+    return set(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final BigInteger value) {
+    return set(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final int value) {
+    return set(index, CompactNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final long value) {
+    return set(index, CompactNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final double value) {
+    return set(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final boolean value) {
+    return set(index, value(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final JsonObjectBuilder builder) {
+    return set(index, builder.build());
+  }
+
+  @Override
+  public JsonArrayBuilder set(final int index, final JsonArrayBuilder builder) {
+    return set(index, builder.build());
+  }
+
+  @Override
+  public JsonArrayBuilder setNull(final int index) {
+    return set(index, NULL);
+  }
+}
@@ -0,0 +1,248 @@
+package net.pincette.json.value;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonNumber;
+
+/**
+ * The numbers of the compact provider. The integers in a small range are shared.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+abstract class CompactNumber implements JsonNumber {
+  private static final int CACHE_HIGH = 1024;
+  private static final int CACHE_LOW = -128;
+  private static final IntNumber[] CACHE = new IntNumber[CACHE_HIGH - CACHE_LOW];
+
+  static {
+    for (int i = 0; i < CACHE.length; ++i) {
+      CACHE[i] = new IntNumber(i + CACHE_LOW);
+    }
+  }
+
+  static JsonNumber of(final int value) {
+    return value >= CACHE_LOW && value < CACHE_HIGH
+        ? CACHE[value - CACHE_LOW]
+        : new IntNumber(value);
+  }
+
+  static JsonNumber of(final long value) {
+    return new LongNumber(value);
+  }
+
+  static JsonNumber of(final BigDecimal value) {
+    return new DecimalNumber(value);
+  }
+
+  public BigInteger bigIntegerValue() {
+    return bigDecimalValue().toBigInteger();
+  }
+
+  public BigInteger bigIntegerValueExact() {
+    return bigDecimalValue().toBigIntegerExact();
+  }
+
+  public double doubleValue() {
+    return bigDecimalValue().doubleValue();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o
+        || (o instanceof JsonNumber number && bigDecimalValue().equals(number.bigDecimalValue()));
+  }
+
+  public ValueType getValueType() {
+    return ValueType.NUMBER;
+  }
+
+  @Override
+  public int hashCode() {
+    return bigDecimalValue().hashCode();
+  }
+
+  public int intValue() {
+    return bigDecimalValue().intValue();
+  }
+
+  public int intValueExact() {
+    return bigDecimalValue().intValueExact();
+  }
+
+  public long longValue() {
+    return bigDecimalValue().longValue();
+  }
+
+  public long longValueExact() {
+    return bigDecimalValue().longValueExact();
+  }
+
+  private static class DecimalNumber extends CompactNumber {
+    private final BigDecimal value;
+
+    private DecimalNumber(final BigDecimal value) {
+      this.value = value;
+    }
+
+    public BigDecimal bigDecimalValue() {
+      return value;
+    }
+
+    public boolean isIntegral() {
+      return value.scale() == 0;
+    }
+
+    @Override
+    public Number numberValue() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return value.toString();
+    }
+  }
+
+  private static class IntNumber extends CompactNumber {
+    private final int value;
+
+    private IntNumber(final int value) {
+      this.value = value;
+    }
+
+    public BigDecimal bigDecimalValue() {
+      return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+      return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValueExact() {
+      return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public double doubleValue() {
+      return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof IntNumber number ? (value == number.value) : super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+      return super.hashCode();
+    }
+
+    @Override
+    public int intValue() {
+      return value;
+    }
+
+    @Override
+    public int intValueExact() {
+      return value;
+    }
+
+    public boolean isIntegral() {
+      return true;
+    }
+
+    @Override
+    public long longValue() {
+      return value;
+    }
+
+    @Override
+    public long longValueExact() {
+      return value;
+    }
+
+    @Override
+    public Number numberValue() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return Integer.toString(value);
+    }
+  }
+
+  private static class LongNumber extends CompactNumber {
+    private final long value;
+
+    private LongNumber(final long value) {
+      this.value = value;
+    }
+
+    public BigDecimal bigDecimalValue() {
+      return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+      return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValueExact() {
+      return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public double doubleValue() {
+      return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof LongNumber number ? (value == number.value) : super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+      return super.hashCode();
+    }
+
+    @Override
+    public int intValue() {
+      return (int) value;
+    }
+
+    @Override
+    public int intValueExact() {
+      return Math.toIntExact(value);
+    }
+
+    public boolean isIntegral() {
+      return true;
+    }
+
+    @Override
+    public long longValue() {
+      return value;
+    }
+
+    @Override
+    public long longValueExact() {
+      return value;
+    }
+
+    @Override
+    public Number numberValue() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return Long.toString(value);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.json.JsonValue;
+
+/**
+ * An immutable JSON object that only keeps its values in an array of the exact size. The keys are
+ * in a <code>Shape</code>, which is shared by all objects with the same keys in the same order.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactObject extends AbstractJsonObject {
+  static final CompactObject EMPTY = new CompactObject(Shape.EMPTY, new JsonValue[0]);
+
+  private final Shape shape;
+  private final JsonValue[] values;
+
+  /** The values are taken over, so they should not be changed anymore. */
+  private CompactObject(final Shape shape, final JsonValue[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  /**
+   * Creates an object from the first <code>size</code> entries of the arrays. The values are
+   * copied, but the keys are not retained. When a key appears more than once, the last value is
+   * kept at the position of the first one.
+   */
+  static CompactObject create(final String[] keys, final JsonValue[] values, final int size) {
+    if (size == 0) {
+      return EMPTY;
+    }
+
+    final Shape shape = Shape.of(keys, size);
+
+    return shape != null
+        ? new CompactObject(shape, copyOf(values, size))
+        : withoutDuplicates(keys, values, size);
+  }
+
+  private static CompactObject withoutDuplicates(
+      final String[] keys, final JsonValue[] values, final int size) {
+    final Map<String, JsonValue> map = new LinkedHashMap<>();
+
+    for (int i = 0; i < size; ++i) {
+      map.put(keys[i], values[i]);
+    }
+
+    final String[] k = map.keySet().toArray(new String[0]);
+
+    return new CompactObject(Shape.of(k, k.length), map.values().toArray(new JsonValue[0]));
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof String s && shape.indexOf(s) != -1;
+  }
+
+  @Override
+  public Set<Entry<String, JsonValue>> entrySet() {
+    return new Entries();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return o instanceof CompactObject object && object.shape == shape
+        ? Arrays.equals(values, object.values)
+        : super.equals(o);
+  }
+
+  @Override
+  public JsonValue get(final Object key) {
+    final int index = key instanceof String s ? shape.indexOf(s) : -1;
+
+    return index != -1 ? values[index] : null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return values.length == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+
+    for (int i = 0; i < values.length; ++i) {
+      result += shape.keys[i].hashCode() ^ values[i].hashCode();
+    }
+
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  private class Entries extends AbstractSet<Entry<String, JsonValue>> {
+    @Override
+    public Iterator<Entry<String, JsonValue>> iterator() {
+      return new Iterator<>() {
+        private int position;
+
+        public boolean hasNext() {
+          return position < values.length;
+        }
+
+        public Entry<String, JsonValue> next() {
+          if (position == values.length) {
+            throw new NoSuchElementException();
+          }
+
+          final int i = position++;
+
+          return new SimpleImmutableEntry<>(shape.keys[i], values[i]);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Objects.requireNonNull;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Collects the fields in two arrays. A field that is added again keeps its position. The shape of
+ * the object is looked up when it is built. The builder is empty again after <code>build</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactObjectBuilder implements JsonObjectBuilder {
+  private static final int INITIAL_SIZE = 8;
+
+  private Map<String, Integer> index;
+  private String[] keys = new String[INITIAL_SIZE];
+  private int size;
+  private JsonValue[] values = new JsonValue[INITIAL_SIZE];
+
+  public JsonObjectBuilder add(final String name, final JsonValue value) {
+    requireNonNull(name);
+    requireNonNull(value);
+
+    final int i = indexOf(name);
+
+    if (i != -1) {
+      values[i] = value;
+    } else {
+      append(name, value);
+    }
+
+    return this;
+  }
+
+  public JsonObjectBuilder add(final String name, final String value) {
+    return add(name, CompactString.of(requireNonNull(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final BigInteger value) {
+    return add(name, CompactNumber.of(new BigDecimal(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final BigDecimal value) {
+    return add(name, CompactNumber.of(requireNonNull(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final int value) {
+    return add(name, CompactNumber.of(value));
+  }
+
+  public JsonObjectBuilder add(final String name, final long value) {
+    return add(name, CompactNumber.of(value));
+  }
+
+  public JsonObjectBuilder add(final String name, final double value) {
+    return add(name, CompactNumber.of(BigDecimal.valueOf(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final boolean value) {
+    return add(name, value ? TRUE : FALSE);
+  }
+
+  public JsonObjectBuilder add(final String name, final JsonObjectBuilder builder) {
+    return add(name, builder.build());
+  }
+
+  public JsonObjectBuilder add(final String name, final JsonArrayBuilder builder) {
+    return add(name, builder.build());
+  }
+
+  @Override
+  public JsonObjectBuilder addAll(final JsonObjectBuilder builder) {
+    builder.build().forEach(this::add);
+
+    return this;
+  }
+
+  public JsonObjectBuilder addNull(final String name) {
+    return add(name, NULL);
+  }
+
+  private void append(final String name, final JsonValue value) {
+    if (size == keys.length) {
+      keys = copyOf(keys, size * 2);
+      values = copyOf(values, size * 2);
+    }
+
+    if (index != null) {
+      index.put(name, size);
+    }
+
+    keys[size] = name;
+    values[size++] = value;
+  }
+
+  public JsonObject build() {
+    final JsonObject result = CompactObject.create(keys, values, size);
+
+    fill(keys, 0, size, null);
+    fill(values, 0, size, null);
+    index = null;
+    size = 0;
+
+    return result;
+  }
+
+  private int indexOf(final String name) {
+    if (size <= Shape.THRESHOLD) {
+      for (int i = 0; i < size; ++i) {
+        if (keys[i].equals(name)) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
+
+    if (index == null) {
+      index = new HashMap<>();
+
+      for (int i = 0; i < size; ++i) {
+        index.put(keys[i], i);
+      }
+    }
+
+    return index.getOrDefault(name, -1);
+  }
+
+  @Override
+  public JsonObjectBuilder remove(final String name) {
+    final int i = indexOf(requireNonNull(name));
+
+    if (i != -1) {
+      System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+      System.arraycopy(values, i + 1, values, i, size - i - 1);
+      keys[--size] = null;
+      values[size] = null;
+      index = null;
+    }
+
+    return this;
+  }
+}
@@ -0,0 +1,391 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.emptyMap;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonMergePatch;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonPatch;
+import javax.json.JsonPatchBuilder;
+import javax.json.JsonPointer;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonString;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * A provider that creates immutable values with little memory overhead. Objects only keep their
+ * values in a flat array. Their keys are in a shape, which is shared by all objects with the same
+ * keys in the same order. Large shapes also have a hash table for the key positions. Arrays keep
+ * their elements in an array of the exact size. Small integers, the empty string and empty
+ * containers are shared.
+ *
+ * <p>The builders and readers of this provider create such values. Everything else, such as
+ * parsers, generators, writers, pointers and patches, comes from the wrapped provider. <code>
+ * JsonUtil</code> uses this provider when the system property <code>net.pincette.json.compact
+ * </code> is set to <code>true</code>.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class CompactProvider extends JsonProvider {
+  public static final String PROPERTY = "net.pincette.json.compact";
+
+  private final JsonProvider delegate;
+
+  /** Wraps the default provider. */
+  public CompactProvider() {
+    this(provider());
+  }
+
+  /**
+   * Creates the provider.
+   *
+   * @param delegate the provider for everything else than building values.
+   */
+  public CompactProvider(final JsonProvider delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Creates an array with the first <code>size</code> elements of <code>values</code>, which are
+   * copied.
+   *
+   * @param values the elements.
+   * @param size the number of elements.
+   * @return The array.
+   */
+  public JsonArray createArray(final JsonValue[] values, final int size) {
+    return size == 0 ? CompactArray.EMPTY : new CompactArray(copyOf(values, size));
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder() {
+    return new CompactArrayBuilder();
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(final JsonArray array) {
+    final JsonArrayBuilder builder = new CompactArrayBuilder();
+
+    array.forEach(builder::add);
+
+    return builder;
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(final Collection<?> collection) {
+    final JsonArrayBuilder builder = new CompactArrayBuilder();
+
+    collection.forEach(v -> builder.add(toValue(v)));
+
+    return builder;
+  }
+
+  @Override
+  public JsonBuilderFactory createBuilderFactory(final Map<String, ?> config) {
+    return new BuilderFactory();
+  }
+
+  @Override
+  public JsonPatch createDiff(final JsonStructure source, final JsonStructure target) {
+    return delegate.createDiff(source, target);
+  }
+
+  @Override
+  public JsonGenerator createGenerator(final Writer writer) {
+    return delegate.createGenerator(writer);
+  }
+
+  @Override
+  public JsonGenerator createGenerator(final OutputStream out) {
+    return delegate.createGenerator(out);
+  }
+
+  @Override
+  public JsonGeneratorFactory createGeneratorFactory(final Map<String, ?> config) {
+    return delegate.createGeneratorFactory(config);
+  }
+
+  @Override
+  public JsonMergePatch createMergeDiff(final JsonValue source, final JsonValue target) {
+    return delegate.createMergeDiff(source, target);
+  }
+
+  @Override
+  public JsonMergePatch createMergePatch(final JsonValue patch) {
+    return delegate.createMergePatch(patch);
+  }
+
+  /**
+   * Creates an object with the first <code>size</code> entries of <code>names</code> and <code>
+   * values</code>, which are copied. When a name appears more than once, the last value is kept at
+   * the position of the first one.
+   *
+   * @param names the field names.
+   * @param values the field values.
+   * @param size the number of fields.
+   * @return The object.
+   */
+  public JsonObject createObject(final String[] names, final JsonValue[] values, final int size) {
+    return CompactObject.create(names, values, size);
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder() {
+    return new CompactObjectBuilder();
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(final JsonObject object) {
+    final JsonObjectBuilder builder = new CompactObjectBuilder();
+
+    object.forEach(builder::add);
+
+    return builder;
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(final Map<String, Object> map) {
+    final JsonObjectBuilder builder = new CompactObjectBuilder();
+
+    map.forEach((k, v) -> builder.add(k, toValue(v)));
+
+    return builder;
+  }
+
+  @Override
+  public JsonParser createParser(final Reader reader) {
+    return delegate.createParser(reader);
+  }
+
+  @Override
+  public JsonParser createParser(final InputStream in) {
+    return delegate.createParser(in);
+  }
+
+  @Override
+  public JsonParserFactory createParserFactory(final Map<String, ?> config) {
+    return delegate.createParserFactory(config);
+  }
+
+  @Override
+  public JsonPatch createPatch(final JsonArray array) {
+    return delegate.createPatch(array);
+  }
+
+  @Override
+  public JsonPatchBuilder createPatchBuilder() {
+    return delegate.createPatchBuilder();
+  }
+
+  @Override
+  public JsonPatchBuilder createPatchBuilder(final JsonArray array) {
+    return delegate.createPatchBuilder(array);
+  }
+
+  @Override
+  public JsonPointer createPointer(final String jsonPointer) {
+    return delegate.createPointer(jsonPointer);
+  }
+
+  @Override
+  public JsonReader createReader(final Reader reader) {
+    return new CompactReader(delegate.createParser(reader), this);
+  }
+
+  @Override
+  public JsonReader createReader(final InputStream in) {
+    return new CompactReader(delegate.createParser(in), this);
+  }
+
+  @Override
+  public JsonReaderFactory createReaderFactory(final Map<String, ?> config) {
+    return new ReaderFactory(delegate.createParserFactory(config));
+  }
+
+  @Override
+  public JsonString createValue(final String value) {
+    return CompactString.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(final int value) {
+    return CompactNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(final long value) {
+    return CompactNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(final double value) {
+    return CompactNumber.of(BigDecimal.valueOf(value));
+  }
+
+  @Override
+  public JsonNumber createValue(final BigDecimal value) {
+    return CompactNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(final BigInteger value) {
+    return CompactNumber.of(new BigDecimal(value));
+  }
+
+  @Override
+  public JsonWriter createWriter(final Writer writer) {
+    return delegate.createWriter(writer);
+  }
+
+  @Override
+  public JsonWriter createWriter(final OutputStream out) {
+    return delegate.createWriter(out);
+  }
+
+  @Override
+  public JsonWriterFactory createWriterFactory(final Map<String, ?> config) {
+    return delegate.createWriterFactory(config);
+  }
+
+  @SuppressWarnings("unchecked")
+  private JsonValue toValue(final Object value) {
+    if (value == null) {
+      return NULL;
+    }
+
+    if (value instanceof JsonValue v) {
+      return v;
+    }
+
+    if (value instanceof String s) {
+      return createValue(s);
+    }
+
+    if (value instanceof Integer i) {
+      return createValue((int) i);
+    }
+
+    if (value instanceof Long l) {
+      return createValue((long) l);
+    }
+
+    if (value instanceof Double d) {
+      return createValue((double) d);
+    }
+
+    if (value instanceof BigDecimal d) {
+      return createValue(d);
+    }
+
+    if (value instanceof BigInteger i) {
+      return createValue(i);
+    }
+
+    if (value instanceof Boolean b) {
+      return Boolean.TRUE.equals(b) ? TRUE : FALSE;
+    }
+
+    if (value instanceof Collection<?> c) {
+      return createArrayBuilder(c).build();
+    }
+
+    if (value instanceof Map<?, ?> m) {
+      return createObjectBuilder((Map<String, Object>) m).build();
+    }
+
+    if (value instanceof JsonArrayBuilder b) {
+      return b.build();
+    }
+
+    if (value instanceof JsonObjectBuilder b) {
+      return b.build();
+    }
+
+    throw new IllegalArgumentException("The type " + value.getClass() + " is not supported");
+  }
+
+  private class BuilderFactory implements JsonBuilderFactory {
+    public JsonArrayBuilder createArrayBuilder() {
+      return CompactProvider.this.createArrayBuilder();
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(final JsonArray array) {
+      return CompactProvider.this.createArrayBuilder(array);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(final Collection<?> collection) {
+      return CompactProvider.this.createArrayBuilder(collection);
+    }
+
+    public JsonObjectBuilder createObjectBuilder() {
+      return CompactProvider.this.createObjectBuilder();
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(final JsonObject object) {
+      return CompactProvider.this.createObjectBuilder(object);
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(final Map<String, Object> object) {
+      return CompactProvider.this.createObjectBuilder(object);
+    }
+
+    public Map<String, ?> getConfigInUse() {
+      return emptyMap();
+    }
+  }
+
+  private class ReaderFactory implements JsonReaderFactory {
+    private final JsonParserFactory parsers;
+
+    private ReaderFactory(final JsonParserFactory parsers) {
+      this.parsers = parsers;
+    }
+
+    public JsonReader createReader(final Reader reader) {
+      return new CompactReader(parsers.createParser(reader), CompactProvider.this);
+    }
+
+    public JsonReader createReader(final InputStream in) {
+      return new CompactReader(parsers.createParser(in), CompactProvider.this);
+    }
+
+    public JsonReader createReader(final InputStream in, final Charset charset) {
+      return new CompactReader(parsers.createParser(in, charset), CompactProvider.this);
+    }
+
+    public Map<String, ?> getConfigInUse() {
+      return parsers.getConfigInUse();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package net.pincette.json.value;
+
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+import static net.pincette.json.filter.Util.addArray;
+import static net.pincette.json.filter.Util.addObject;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import net.pincette.json.filter.JsonTreeGenerator;
+
+/**
+ * Reads one value from a parser and builds it with a provider.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactReader implements JsonReader {
+  private final JsonParser parser;
+  private final JsonProvider provider;
+  private boolean used;
+
+  CompactReader(final JsonParser parser, final JsonProvider provider) {
+    this.parser = parser;
+    this.provider = provider;
+  }
+
+  public void close() {
+    parser.close();
+  }
+
+  public JsonStructure read() {
+    if (readValue() instanceof JsonStructure structure) {
+      return structure;
+    }
+
+    throw new JsonException("The value is not an object or an array");
+  }
+
+  public JsonArray readArray() {
+    if (readValue() instanceof JsonArray array) {
+      return array;
+    }
+
+    throw new JsonException("The value is not an array");
+  }
+
+  public JsonObject readObject() {
+    if (readValue() instanceof JsonObject object) {
+      return object;
+    }
+
+    throw new JsonException("The value is not an object");
+  }
+
+  @Override
+  public JsonValue readValue() {
+    if (used) {
+      throw new IllegalStateException("The value has already been read");
+    }
+
+    used = true;
+
+    if (!parser.hasNext()) {
+      throw new JsonException("There is no value");
+    }
+
+    return switch (parser.next()) {
+      case START_ARRAY -> tree(true);
+      case START_OBJECT -> tree(false);
+      case VALUE_FALSE -> FALSE;
+      case VALUE_NULL -> NULL;
+      case VALUE_NUMBER -> provider.createValue(parser.getBigDecimal());
+      case VALUE_STRING -> provider.createValue(parser.getString());
+      case VALUE_TRUE -> TRUE;
+      default -> throw new JsonException("Unexpected event");
+    };
+  }
+
+  private JsonValue tree(final boolean array) {
+    final JsonTreeGenerator generator = new JsonTreeGenerator(provider);
+
+    if (array) {
+      addArray(parser, generator);
+    } else {
+      addObject(parser, generator);
+    }
+
+    return generator.build();
+  }
+}
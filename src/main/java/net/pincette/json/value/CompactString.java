@@ -0,0 +1,54 @@
+package net.pincette.json.value;
+
+import javax.json.JsonString;
+
+/**
+ * The strings of the compact provider.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class CompactString implements JsonString {
+  private static final CompactString EMPTY = new CompactString("");
+
+  private final String value;
+
+  private CompactString(final String value) {
+    this.value = value;
+  }
+
+  static JsonString of(final String value) {
+    return value.isEmpty() ? EMPTY : new CompactString(value);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o || (o instanceof JsonString s && value.equals(s.getString()));
+  }
+
+  public CharSequence getChars() {
+    return value;
+  }
+
+  public String getString() {
+    return value;
+  }
+
+  public ValueType getValueType() {
+    return ValueType.STRING;
+  }
+
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(value.length() + 2);
+
+    Text.quote(value, builder);
+
+    return builder.toString();
+  }
+}
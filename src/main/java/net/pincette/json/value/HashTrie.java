@@ -0,0 +1,281 @@
+package net.pincette.json.value;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.compareUnsigned;
+import static java.util.Arrays.copyOf;
+
+/**
+ * An immutable map from strings, which is a hash array mapped trie. Each level consumes five bits
+ * of the hash code and only allocates the slots that are used. Lookups and changes touch as many
+ * nodes as there are levels, which is at most seven. The new versions share all other nodes. Keys
+ * with the same hash code end up in a collision node.
+ *
+ * @param <V> the value type.
+ * @author Werner Donné
+ * @since 2.2
+ */
+class HashTrie<V> {
+  private static final int BITS = 5;
+  private static final HashTrie<Object> EMPTY = new HashTrie<>(new BitmapNode(0, new Object[0]));
+  private static final int MASK = (1 << BITS) - 1;
+
+  private final BitmapNode root;
+
+  private HashTrie(final BitmapNode root) {
+    this.root = root;
+  }
+
+  private static int bit(final int hash, final int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <V> HashTrie<V> empty() {
+    return (HashTrie<V>) EMPTY;
+  }
+
+  private static int hash(final Object slot) {
+    return slot instanceof Leaf leaf ? leaf.hash : ((CollisionNode) slot).hash;
+  }
+
+  /**
+   * Creates the node at level <code>shift</code> that contains <code>slot</code>, which is a leaf
+   * or a collision node, and <code>leaf</code>. Their hash codes are different.
+   */
+  private static Object merge(final Object slot, final Leaf leaf, final int shift) {
+    final int hash = hash(slot);
+    final int bit1 = bit(hash, shift);
+    final int bit2 = bit(leaf.hash, shift);
+
+    if (bit1 == bit2) {
+      return new BitmapNode(bit1, new Object[] {merge(slot, leaf, shift + BITS)});
+    }
+
+    return new BitmapNode(
+        bit1 | bit2,
+        compareUnsigned(bit1, bit2) < 0 ? new Object[] {slot, leaf} : new Object[] {leaf, slot});
+  }
+
+  private static Object put(final Object slot, final Leaf leaf, final int shift) {
+    if (slot instanceof BitmapNode node) {
+      return node.put(leaf, shift);
+    }
+
+    if (slot instanceof CollisionNode node) {
+      return node.hash == leaf.hash ? node.put(leaf) : merge(node, leaf, shift);
+    }
+
+    final Leaf existing = (Leaf) slot;
+
+    if (existing.key.equals(leaf.key)) {
+      return existing.value == leaf.value ? existing : leaf;
+    }
+
+    return existing.hash == leaf.hash
+        ? new CollisionNode(leaf.hash, new Leaf[] {existing, leaf})
+        : merge(existing, leaf, shift);
+  }
+
+  /** Returns <code>null</code> when nothing is left. */
+  private static Object remove(
+      final Object slot, final String key, final int hash, final int shift) {
+    if (slot instanceof BitmapNode node) {
+      return node.remove(key, hash, shift);
+    }
+
+    if (slot instanceof CollisionNode node) {
+      return node.remove(key);
+    }
+
+    return ((Leaf) slot).key.equals(key) ? null : slot;
+  }
+
+  @SuppressWarnings("unchecked")
+  V get(final String key) {
+    final int hash = key.hashCode();
+    Object slot = root;
+    int shift = 0;
+
+    while (slot instanceof BitmapNode node) {
+      final int bit = bit(hash, shift);
+
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+
+      slot = node.slots[bitCount(node.bitmap & (bit - 1))];
+      shift += BITS;
+    }
+
+    if (slot instanceof CollisionNode node) {
+      for (final Leaf leaf : node.leaves) {
+        if (leaf.key.equals(key)) {
+          return (V) leaf.value;
+        }
+      }
+
+      return null;
+    }
+
+    final Leaf leaf = (Leaf) slot;
+
+    return leaf.key.equals(key) ? (V) leaf.value : null;
+  }
+
+  HashTrie<V> put(final String key, final V value) {
+    final Object result = root.put(new Leaf(key, key.hashCode(), value), 0);
+
+    return result != root ? new HashTrie<>((BitmapNode) result) : this;
+  }
+
+  HashTrie<V> remove(final String key) {
+    final Object result = root.remove(key, key.hashCode(), 0);
+
+    if (result == root) {
+      return this;
+    }
+
+    if (result == null) {
+      return empty();
+    }
+
+    return result instanceof BitmapNode node
+        ? new HashTrie<>(node)
+        : new HashTrie<>(new BitmapNode(bit(hash(result), 0), new Object[] {result}));
+  }
+
+  private static class BitmapNode {
+    private final int bitmap;
+    private final Object[] slots;
+
+    private BitmapNode(final int bitmap, final Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    private Object put(final Leaf leaf, final int shift) {
+      final int bit = bit(leaf.hash, shift);
+      final int index = bitCount(bitmap & (bit - 1));
+
+      if ((bitmap & bit) == 0) {
+        final Object[] result = new Object[slots.length + 1];
+
+        System.arraycopy(slots, 0, result, 0, index);
+        result[index] = leaf;
+        System.arraycopy(slots, index, result, index + 1, slots.length - index);
+
+        return new BitmapNode(bitmap | bit, result);
+      }
+
+      final Object slot = HashTrie.put(slots[index], leaf, shift + BITS);
+
+      return slot != slots[index] ? with(index, slot) : this;
+    }
+
+    /**
+     * Returns <code>null</code> when nothing is left. A single remaining leaf or collision node is
+     * returned as such, so the parent can take it in.
+     */
+    private Object remove(final String key, final int hash, final int shift) {
+      final int bit = bit(hash, shift);
+
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int index = bitCount(bitmap & (bit - 1));
+      final Object slot = HashTrie.remove(slots[index], key, hash, shift + BITS);
+
+      if (slot == slots[index]) {
+        return this;
+      }
+
+      if (slot != null) {
+        return slots.length == 1 && !(slot instanceof BitmapNode) ? slot : with(index, slot);
+      }
+
+      if (slots.length == 1) {
+        return null;
+      }
+
+      if (slots.length == 2 && !(slots[1 - index] instanceof BitmapNode)) {
+        return slots[1 - index];
+      }
+
+      final Object[] result = new Object[slots.length - 1];
+
+      System.arraycopy(slots, 0, result, 0, index);
+      System.arraycopy(slots, index + 1, result, index, slots.length - index - 1);
+
+      return new BitmapNode(bitmap & ~bit, result);
+    }
+
+    private BitmapNode with(final int index, final Object slot) {
+      final Object[] result = slots.clone();
+
+      result[index] = slot;
+
+      return new BitmapNode(bitmap, result);
+    }
+  }
+
+  private static class CollisionNode {
+    private final int hash;
+    private final Leaf[] leaves;
+
+    private CollisionNode(final int hash, final Leaf[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private int indexOf(final String key) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].key.equals(key)) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
+
+    private CollisionNode put(final Leaf leaf) {
+      final int index = indexOf(leaf.key);
+      final Leaf[] result = index != -1 ? leaves.clone() : copyOf(leaves, leaves.length + 1);
+
+      result[index != -1 ? index : leaves.length] = leaf;
+
+      return new CollisionNode(hash, result);
+    }
+
+    private Object remove(final String key) {
+      final int index = indexOf(key);
+
+      if (index == -1) {
+        return this;
+      }
+
+      if (leaves.length == 2) {
+        return leaves[1 - index];
+      }
+
+      final Leaf[] result = new Leaf[leaves.length - 1];
+
+      System.arraycopy(leaves, 0, result, 0, index);
+      System.arraycopy(leaves, index + 1, result, index, leaves.length - index - 1);
+
+      return new CollisionNode(hash, result);
+    }
+  }
+
+  private static class Leaf {
+    private final int hash;
+    private final String key;
+    private final Object value;
+
+    private Leaf(final String key, final int hash, final Object value) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+import static net.pincette.json.value.ByteScanner.error;
+import static net.pincette.json.value.ByteScanner.isStructure;
+import static net.pincette.json.value.ByteScanner.skipValue;
+import static net.pincette.json.value.ByteScanner.skipWhitespace;
+
+import javax.json.JsonValue;
+
+/**
+ * A JSON array that is a view on UTF-8 encoded JSON text. The element offsets are found on first
+ * access and the elements are decoded when they are asked for.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class LazyArray extends AbstractJsonArray implements Slice {
+  private static final int INITIAL_SIZE = 8;
+
+  private final byte[] bytes;
+  private final int end;
+  private final int start;
+  private volatile Index index;
+
+  LazyArray(final byte[] bytes, final int start, final int end) {
+    this.bytes = bytes;
+    this.start = start;
+    this.end = end;
+  }
+
+  public byte[] bytes() {
+    return bytes;
+  }
+
+  public int end() {
+    return end;
+  }
+
+  @Override
+  public JsonValue get(final int index) {
+    return index().value(index);
+  }
+
+  public boolean isVerbatim() {
+    final Index i = index();
+
+    if (i.verbatim == null) {
+      boolean result = true;
+
+      for (int p = 0; result && p < i.values.length; ++p) {
+        result = !isStructure(bytes, i.offsets[p * 2]) || ((Slice) i.value(p)).isVerbatim();
+      }
+
+      i.verbatim = result;
+    }
+
+    return i.verbatim;
+  }
+
+  private Index index() {
+    Index result = index;
+
+    if (result == null) {
+      result = scan();
+      index = result;
+    }
+
+    return result;
+  }
+
+  private Index scan() {
+    final int last = end - 1;
+
+    if (bytes[last] != ']') {
+      throw error("Expected ']'", last);
+    }
+
+    int[] offsets = new int[INITIAL_SIZE * 2];
+    int size = 0;
+    int i = skipWhitespace(bytes, start + 1, last);
+
+    while (i < last) {
+      final int valueEnd = skipValue(bytes, i, last);
+
+      if (size * 2 == offsets.length) {
+        offsets = copyOf(offsets, offsets.length * 2);
+      }
+
+      offsets[size * 2] = i;
+      offsets[size * 2 + 1] = valueEnd;
+      ++size;
+      i = skipWhitespace(bytes, valueEnd, last);
+
+      if (i < last) {
+        if (bytes[i] != ',') {
+          throw error("Expected ','", i);
+        }
+
+        i = skipWhitespace(bytes, i + 1, last);
+
+        if (i == last) {
+          throw error("Expected a value", i);
+        }
+      }
+    }
+
+    return new Index(copyOf(offsets, size * 2));
+  }
+
+  @Override
+  public int size() {
+    return index().values.length;
+  }
+
+  public int start() {
+    return start;
+  }
+
+  private class Index {
+    private final int[] offsets;
+    private final JsonValue[] values;
+    private Boolean verbatim;
+
+    private Index(final int[] offsets) {
+      this.offsets = offsets;
+      this.values = new JsonValue[offsets.length / 2];
+    }
+
+    private JsonValue value(final int index) {
+      JsonValue result = values[index];
+
+      if (result == null) {
+        result = ByteScanner.value(bytes, offsets[index * 2], offsets[index * 2 + 1]);
+        values[index] = result;
+      }
+
+      return result;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package net.pincette.json.value;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.pincette.json.value.ByteScanner.error;
+import static net.pincette.json.value.ByteScanner.skipValue;
+import static net.pincette.json.value.ByteScanner.skipWhitespace;
+import static net.pincette.util.Util.tryToDoRethrow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+
+/**
+ * Reads JSON structures that are views on a UTF-8 encoded buffer. Reading only checks where the
+ * top-level structure ends. The members of an object or array are located when it is accessed for
+ * the first time, and scalars and nested structures are decoded when they are asked for. So when
+ * only a few fields of a large message are used, most of it is never decoded. Errors in parts that
+ * haven't been looked at yet surface later as a <code>JsonException</code>.
+ *
+ * <p>The buffer is not copied, so it should not be changed anymore. The structures are immutable
+ * and can be shared between threads. Writing them copies the original bytes of the parts that still
+ * come from the buffer, unless an object in such a part has a key more than once.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class LazyJson {
+  private LazyJson() {}
+
+  /**
+   * Reads a JSON object or array from a UTF-8 encoded byte range.
+   *
+   * @param bytes the buffer that contains the JSON text.
+   * @param offset the start of the range.
+   * @param length the length of the range.
+   * @return The structure.
+   * @throws javax.json.JsonException when the range doesn't contain one object or array.
+   */
+  public static JsonStructure read(final byte[] bytes, final int offset, final int length) {
+    final int end = offset + length;
+    final int start = skipWhitespace(bytes, offset, end);
+
+    if (start == end || (bytes[start] != '{' && bytes[start] != '[')) {
+      throw error("Expected an object or an array", start);
+    }
+
+    final int valueEnd = skipValue(bytes, start, end);
+    final int trailing = skipWhitespace(bytes, valueEnd, end);
+
+    if (trailing != end) {
+      throw error("Unexpected content", trailing);
+    }
+
+    return (JsonStructure) ByteScanner.value(bytes, start, valueEnd);
+  }
+
+  /**
+   * Writes <code>value</code> as UTF-8 encoded JSON text. Objects and arrays that were produced by
+   * the <code>read</code> method are copied from their buffer, except when an object in them has a
+   * key more than once. Those are written field by field with the last value of the key.
+   *
+   * @param value the value to write.
+   * @param out the stream, which is not closed.
+   */
+  public static void write(final JsonValue value, final OutputStream out) {
+    tryToDoRethrow(() -> writeValue(value, out));
+  }
+
+  private static void writeArray(final JsonArray array, final OutputStream out) throws IOException {
+    boolean first = true;
+
+    out.write('[');
+
+    for (final JsonValue v : array) {
+      if (!first) {
+        out.write(',');
+      }
+
+      first = false;
+      writeValue(v, out);
+    }
+
+    out.write(']');
+  }
+
+  private static void writeObject(final JsonObject object, final OutputStream out)
+      throws IOException {
+    boolean first = true;
+
+    out.write('{');
+
+    for (final Map.Entry<String, JsonValue> e : object.entrySet()) {
+      if (!first) {
+        out.write(',');
+      }
+
+      first = false;
+      writeString(e.getKey(), out);
+      out.write(':');
+      writeValue(e.getValue(), out);
+    }
+
+    out.write('}');
+  }
+
+  private static void writeString(final String s, final OutputStream out) throws IOException {
+    final StringBuilder builder = new StringBuilder(s.length() + 2);
+
+    Text.quote(s, builder);
+    out.write(builder.toString().getBytes(UTF_8));
+  }
+
+  private static void writeValue(final JsonValue value, final OutputStream out) throws IOException {
+    if (value instanceof Slice slice && slice.isVerbatim()) {
+      out.write(slice.bytes(), slice.start(), slice.end() - slice.start());
+    } else {
+      switch (value.getValueType()) {
+        case ARRAY -> writeArray(value.asJsonArray(), out);
+        case OBJECT -> writeObject(value.asJsonObject(), out);
+        case STRING -> writeString(((JsonString) value).getString(), out);
+        default -> out.write(value.toString().getBytes(UTF_8));
+      }
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+import static net.pincette.json.value.ByteScanner.error;
+import static net.pincette.json.value.ByteScanner.expect;
+import static net.pincette.json.value.ByteScanner.isStructure;
+import static net.pincette.json.value.ByteScanner.skipString;
+import static net.pincette.json.value.ByteScanner.skipValue;
+import static net.pincette.json.value.ByteScanner.skipWhitespace;
+import static net.pincette.json.value.ByteScanner.string;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.json.JsonValue;
+
+/**
+ * A JSON object that is a view on UTF-8 encoded JSON text. The keys and value offsets are found on
+ * first access and the values are decoded when they are asked for. The keys are kept in a <code>
+ * Shape</code>, like with compact objects.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class LazyObject extends AbstractJsonObject implements Slice {
+  private static final int INITIAL_SIZE = 8;
+
+  private final byte[] bytes;
+  private final int end;
+  private final int start;
+  private volatile Index index;
+
+  LazyObject(final byte[] bytes, final int start, final int end) {
+    this.bytes = bytes;
+    this.start = start;
+    this.end = end;
+  }
+
+  /** When a key appears more than once, the last value is kept at the position of the first one. */
+  private static Index withoutDuplicates(final String[] keys, final int[] offsets, final int size) {
+    final Map<String, Integer> positions = new LinkedHashMap<>();
+
+    for (int i = 0; i < size; ++i) {
+      positions.put(keys[i], i);
+    }
+
+    final String[] k = positions.keySet().toArray(new String[0]);
+    final int[] o = new int[k.length * 2];
+    int i = 0;
+
+    for (final int position : positions.values()) {
+      o[i++] = offsets[position * 2];
+      o[i++] = offsets[position * 2 + 1];
+    }
+
+    return new Index(Shape.of(k, k.length), o, true);
+  }
+
+  public byte[] bytes() {
+    return bytes;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof String s && index().shape.indexOf(s) != -1;
+  }
+
+  public int end() {
+    return end;
+  }
+
+  @Override
+  public Set<Entry<String, JsonValue>> entrySet() {
+    return new Entries(index());
+  }
+
+  @Override
+  public JsonValue get(final Object key) {
+    final Index i = index();
+    final int position = key instanceof String s ? i.shape.indexOf(s) : -1;
+
+    return position != -1 ? value(i, position) : null;
+  }
+
+  private Index index() {
+    Index result = index;
+
+    if (result == null) {
+      result = scan();
+      index = result;
+    }
+
+    return result;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public boolean isVerbatim() {
+    final Index i = index();
+
+    if (i.verbatim == null) {
+      boolean result = !i.duplicates;
+
+      for (int p = 0; result && p < i.values.length; ++p) {
+        result = !isStructure(bytes, i.offsets[p * 2]) || ((Slice) value(i, p)).isVerbatim();
+      }
+
+      i.verbatim = result;
+    }
+
+    return i.verbatim;
+  }
+
+  private Index scan() {
+    final int last = end - 1;
+
+    if (bytes[last] != '}') {
+      throw error("Expected '}'", last);
+    }
+
+    String[] keys = new String[INITIAL_SIZE];
+    int[] offsets = new int[INITIAL_SIZE * 2];
+    int size = 0;
+    int i = skipWhitespace(bytes, start + 1, last);
+
+    while (i < last) {
+      if (bytes[i] != '"') {
+        throw error("Expected a key", i);
+      }
+
+      final int keyEnd = skipString(bytes, i, last);
+      final int valueStart =
+          skipWhitespace(
+              bytes, expect(bytes, skipWhitespace(bytes, keyEnd, last), last, ':'), last);
+      final int valueEnd = skipValue(bytes, valueStart, last);
+
+      if (size == keys.length) {
+        keys = copyOf(keys, size * 2);
+        offsets = copyOf(offsets, size * 4);
+      }
+
+      keys[size] = string(bytes, i, keyEnd);
+      offsets[size * 2] = valueStart;
+      offsets[size * 2 + 1] = valueEnd;
+      ++size;
+      i = skipWhitespace(bytes, valueEnd, last);
+
+      if (i < last) {
+        i = skipWhitespace(bytes, expect(bytes, i, last, ','), last);
+
+        if (i == last) {
+          throw error("Expected a key", i);
+        }
+      }
+    }
+
+    final Shape shape = Shape.of(keys, size);
+
+    return shape != null
+        ? new Index(shape, copyOf(offsets, size * 2), false)
+        : withoutDuplicates(keys, offsets, size);
+  }
+
+  @Override
+  public int size() {
+    return index().values.length;
+  }
+
+  public int start() {
+    return start;
+  }
+
+  private JsonValue value(final Index index, final int position) {
+    JsonValue result = index.values[position];
+
+    if (result == null) {
+      result =
+          ByteScanner.value(bytes, index.offsets[position * 2], index.offsets[position * 2 + 1]);
+      index.values[position] = result;
+    }
+
+    return result;
+  }
+
+  private static class Index {
+    private final boolean duplicates;
+    private final int[] offsets;
+    private final Shape shape;
+    private final JsonValue[] values;
+    private Boolean verbatim;
+
+    private Index(final Shape shape, final int[] offsets, final boolean duplicates) {
+      this.shape = shape;
+      this.offsets = offsets;
+      this.duplicates = duplicates;
+      this.values = new JsonValue[shape.keys.length];
+    }
+  }
+
+  private class Entries extends AbstractSet<Entry<String, JsonValue>> {
+    private final Index index;
+
+    private Entries(final Index index) {
+      this.index = index;
+    }
+
+    @Override
+    public Iterator<Entry<String, JsonValue>> iterator() {
+      return new Iterator<>() {
+        private int position;
+
+        public boolean hasNext() {
+          return position < index.values.length;
+        }
+
+        public Entry<String, JsonValue> next() {
+          if (position == index.values.length) {
+            throw new NoSuchElementException();
+          }
+
+          final int i = position++;
+
+          return new SimpleImmutableEntry<>(index.shape.keys[i], value(index, i));
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return index.values.length;
+    }
+  }
+}
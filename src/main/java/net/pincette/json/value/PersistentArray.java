@@ -0,0 +1,90 @@
+package net.pincette.json.value;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import javax.json.JsonArray;
+import javax.json.JsonValue;
+
+/**
+ * An immutable JSON array with cheap edits. The methods <code>with</code> and <code>without</code>
+ * return a new version in logarithmic time, which shares all unchanged parts with the old one. The
+ * functions in <code>JsonUtil</code> that change arrays use them when they get a persistent array.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class PersistentArray extends AbstractJsonArray {
+  public static final PersistentArray EMPTY = new PersistentArray(Sequence.empty());
+
+  private final Sequence<JsonValue> values;
+
+  private PersistentArray(final Sequence<JsonValue> values) {
+    this.values = values;
+  }
+
+  /**
+   * Returns <code>array</code> as a persistent array, which it may already be.
+   *
+   * @param array the given array.
+   * @return The persistent array.
+   */
+  public static PersistentArray of(final JsonArray array) {
+    return array instanceof PersistentArray persistent
+        ? persistent
+        : new PersistentArray(Sequence.of(new ArrayList<>(array)));
+  }
+
+  @Override
+  public JsonValue get(final int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Returns a new version where the element at <code>index</code> is inserted before the current
+   * element at that position.
+   *
+   * @param index the position, which may be equal to the size of the array.
+   * @param value the new value.
+   * @return The new array.
+   */
+  public PersistentArray inserted(final int index, final JsonValue value) {
+    return new PersistentArray(values.insert(index, requireNonNull(value)));
+  }
+
+  @Override
+  public Iterator<JsonValue> iterator() {
+    return values.iterator();
+  }
+
+  @Override
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Returns a new version where the element at <code>index</code> is replaced with <code>value
+   * </code>. If <code>index</code> is equal to the size of the array, then <code>value</code> is
+   * appended.
+   *
+   * @param index the position.
+   * @param value the new value.
+   * @return The new array.
+   */
+  public PersistentArray with(final int index, final JsonValue value) {
+    return index == values.size()
+        ? inserted(index, value)
+        : new PersistentArray(values.set(index, requireNonNull(value)));
+  }
+
+  /**
+   * Returns a new version without the element at <code>index</code>.
+   *
+   * @param index the position.
+   * @return The new array.
+   */
+  public PersistentArray without(final int index) {
+    return new PersistentArray(values.remove(index));
+  }
+}
@@ -0,0 +1,203 @@
+package net.pincette.json.value;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * An immutable JSON object with cheap edits. The methods <code>with</code> and <code>without</code>
+ * return a new version in logarithmic time, which shares all unchanged parts with the old one. The
+ * functions in <code>JsonUtil</code> that change objects use them when they get a persistent
+ * object.
+ *
+ * <p>The fields are in a hash array mapped trie. Their order is kept in a separate sequence of
+ * keys. A removed field leaves a gap in it, which is cleaned up when there are more gaps than
+ * fields.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+public class PersistentObject extends AbstractJsonObject {
+  public static final PersistentObject EMPTY =
+      new PersistentObject(HashTrie.empty(), Sequence.empty(), 0);
+
+  private static final int MIN_GAPS = 32;
+
+  private final HashTrie<Field> fields;
+  private final Sequence<String> keys;
+  private final int size;
+
+  private PersistentObject(
+      final HashTrie<Field> fields, final Sequence<String> keys, final int size) {
+    this.fields = fields;
+    this.keys = keys;
+    this.size = size;
+  }
+
+  /**
+   * Returns <code>object</code> as a persistent object, which it may already be.
+   *
+   * @param object the given object.
+   * @return The persistent object.
+   */
+  public static PersistentObject of(final JsonObject object) {
+    return object instanceof PersistentObject persistent ? persistent : of(object.entrySet());
+  }
+
+  private static PersistentObject of(final Set<Entry<String, JsonValue>> entries) {
+    final List<String> k = new ArrayList<>(entries.size());
+    HashTrie<Field> f = HashTrie.empty();
+
+    for (final Entry<String, JsonValue> e : entries) {
+      f = f.put(e.getKey(), new Field(k.size(), e.getValue()));
+      k.add(e.getKey());
+    }
+
+    return k.isEmpty() ? EMPTY : new PersistentObject(f, Sequence.of(k), k.size());
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof String s && fields.get(s) != null;
+  }
+
+  @Override
+  public Set<Entry<String, JsonValue>> entrySet() {
+    return new Entries();
+  }
+
+  @Override
+  public JsonValue get(final Object key) {
+    final Field field = key instanceof String s ? fields.get(s) : null;
+
+    return field != null ? field.value : null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a builder that starts from this object. Each change to it is an edit of a persistent
+   * object. The builder keeps its state after <code>build</code>.
+   *
+   * @return The builder.
+   */
+  public JsonObjectBuilder toBuilder() {
+    return new PersistentObjectBuilder(this);
+  }
+
+  /**
+   * Returns a new version where the field <code>name</code> is set to <code>value</code>. An
+   * existing field keeps its position. A new one is added at the end.
+   *
+   * @param name the name of the field.
+   * @param value the new value.
+   * @return The new object.
+   */
+  public PersistentObject with(final String name, final JsonValue value) {
+    requireNonNull(value);
+
+    final Field field = fields.get(requireNonNull(name));
+
+    if (field != null) {
+      return field.value == value
+          ? this
+          : new PersistentObject(fields.put(name, new Field(field.position, value)), keys, size);
+    }
+
+    return new PersistentObject(
+        fields.put(name, new Field(keys.size(), value)), keys.insert(keys.size(), name), size + 1);
+  }
+
+  /**
+   * Returns a new version without the field <code>name</code>.
+   *
+   * @param name the name of the field.
+   * @return The new object.
+   */
+  public PersistentObject without(final String name) {
+    final Field field = fields.get(name);
+
+    if (field == null) {
+      return this;
+    }
+
+    if (size == 1) {
+      return EMPTY;
+    }
+
+    final PersistentObject result =
+        new PersistentObject(fields.remove(name), keys.set(field.position, null), size - 1);
+    final int gaps = result.keys.size() - result.size;
+
+    return gaps > MIN_GAPS && gaps > result.size ? of(result.entrySet()) : result;
+  }
+
+  private class Entries extends AbstractSet<Entry<String, JsonValue>> {
+    @Override
+    public Iterator<Entry<String, JsonValue>> iterator() {
+      return new Iterator<>() {
+        private final Iterator<String> iterator = keys.iterator();
+        private String next = advance();
+
+        private String advance() {
+          while (iterator.hasNext()) {
+            final String key = iterator.next();
+
+            if (key != null) {
+              return key;
+            }
+          }
+
+          return null;
+        }
+
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        public Entry<String, JsonValue> next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+
+          final String key = next;
+
+          next = advance();
+
+          return new SimpleImmutableEntry<>(key, fields.get(key).value);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static class Field {
+    private final int position;
+    private final JsonValue value;
+
+    private Field(final int position, final JsonValue value) {
+      this.position = position;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package net.pincette.json.value;
+
+import static java.util.Objects.requireNonNull;
+import static javax.json.JsonValue.FALSE;
+import static javax.json.JsonValue.NULL;
+import static javax.json.JsonValue.TRUE;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * Applies each change as an edit of a persistent object, so building from an existing object
+ * doesn't copy it.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class PersistentObjectBuilder implements JsonObjectBuilder {
+  private PersistentObject object;
+
+  PersistentObjectBuilder(final PersistentObject object) {
+    this.object = object;
+  }
+
+  public JsonObjectBuilder add(final String name, final JsonValue value) {
+    object = object.with(name, value);
+
+    return this;
+  }
+
+  public JsonObjectBuilder add(final String name, final String value) {
+    return add(name, CompactString.of(requireNonNull(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final BigInteger value) {
+    return add(name, CompactNumber.of(new BigDecimal(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final BigDecimal value) {
+    return add(name, CompactNumber.of(requireNonNull(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final int value) {
+    return add(name, CompactNumber.of(value));
+  }
+
+  public JsonObjectBuilder add(final String name, final long value) {
+    return add(name, CompactNumber.of(value));
+  }
+
+  public JsonObjectBuilder add(final String name, final double value) {
+    return add(name, CompactNumber.of(BigDecimal.valueOf(value)));
+  }
+
+  public JsonObjectBuilder add(final String name, final boolean value) {
+    return add(name, value ? TRUE : FALSE);
+  }
+
+  public JsonObjectBuilder add(final String name, final JsonObjectBuilder builder) {
+    return add(name, builder.build());
+  }
+
+  public JsonObjectBuilder add(final String name, final JsonArrayBuilder builder) {
+    return add(name, builder.build());
+  }
+
+  @Override
+  public JsonObjectBuilder addAll(final JsonObjectBuilder builder) {
+    builder.build().forEach(this::add);
+
+    return this;
+  }
+
+  public JsonObjectBuilder addNull(final String name) {
+    return add(name, NULL);
+  }
+
+  public JsonObject build() {
+    return object;
+  }
+
+  @Override
+  public JsonObjectBuilder remove(final String name) {
+    object = object.without(requireNonNull(name));
+
+    return this;
+  }
+}
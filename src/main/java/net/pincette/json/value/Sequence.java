@@ -0,0 +1,235 @@
+package net.pincette.json.value;
+
+import static java.util.Objects.checkIndex;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable sequence, which is a balanced tree where the nodes know the size of their subtree.
+ * Getting, setting, inserting and removing elements at a position are logarithmic. The new versions
+ * share all nodes that are not on the path to the changed position.
+ *
+ * @param <E> the element type, which may include <code>null</code>.
+ * @author Werner Donné
+ * @since 2.2
+ */
+class Sequence<E> implements Iterable<E> {
+  private static final Sequence<Object> EMPTY = new Sequence<>(null);
+
+  private final Node<E> root;
+
+  private Sequence(final Node<E> root) {
+    this.root = root;
+  }
+
+  private static <E> Node<E> balance(final Node<E> node) {
+    final int difference = height(node.left) - height(node.right);
+
+    if (difference > 1) {
+      return height(node.left.left) >= height(node.left.right)
+          ? rotateRight(node)
+          : rotateRight(node.withLeft(rotateLeft(node.left)));
+    }
+
+    if (difference < -1) {
+      return height(node.right.right) >= height(node.right.left)
+          ? rotateLeft(node)
+          : rotateLeft(node.withRight(rotateRight(node.right)));
+    }
+
+    return node;
+  }
+
+  private static <E> Node<E> build(final List<E> elements, final int from, final int to) {
+    if (from == to) {
+      return null;
+    }
+
+    final int middle = (from + to) >>> 1;
+
+    return new Node<>(
+        build(elements, from, middle), elements.get(middle), build(elements, middle + 1, to));
+  }
+
+  @SuppressWarnings("unchecked")
+  static <E> Sequence<E> empty() {
+    return (Sequence<E>) EMPTY;
+  }
+
+  private static <E> E get(final Node<E> node, final int index) {
+    Node<E> n = node;
+    int i = index;
+
+    while (true) {
+      final int left = size(n.left);
+
+      if (i < left) {
+        n = n.left;
+      } else if (i > left) {
+        i -= left + 1;
+        n = n.right;
+      } else {
+        return n.value;
+      }
+    }
+  }
+
+  private static int height(final Node<?> node) {
+    return node != null ? node.height : 0;
+  }
+
+  private static <E> Node<E> insert(final Node<E> node, final int index, final E value) {
+    if (node == null) {
+      return new Node<>(null, value, null);
+    }
+
+    final int left = size(node.left);
+
+    return balance(
+        index <= left
+            ? node.withLeft(insert(node.left, index, value))
+            : node.withRight(insert(node.right, index - left - 1, value)));
+  }
+
+  static <E> Sequence<E> of(final List<E> elements) {
+    return elements.isEmpty() ? empty() : new Sequence<>(build(elements, 0, elements.size()));
+  }
+
+  private static <E> Node<E> remove(final Node<E> node, final int index) {
+    final int left = size(node.left);
+
+    if (index < left) {
+      return balance(node.withLeft(remove(node.left, index)));
+    }
+
+    if (index > left) {
+      return balance(node.withRight(remove(node.right, index - left - 1)));
+    }
+
+    if (node.left == null) {
+      return node.right;
+    }
+
+    if (node.right == null) {
+      return node.left;
+    }
+
+    return balance(new Node<>(node.left, get(node.right, 0), remove(node.right, 0)));
+  }
+
+  private static <E> Node<E> rotateLeft(final Node<E> node) {
+    return node.right.withLeft(node.withRight(node.right.left));
+  }
+
+  private static <E> Node<E> rotateRight(final Node<E> node) {
+    return node.left.withRight(node.withLeft(node.left.right));
+  }
+
+  private static <E> Node<E> set(final Node<E> node, final int index, final E value) {
+    final int left = size(node.left);
+
+    if (index < left) {
+      return node.withLeft(set(node.left, index, value));
+    }
+
+    if (index > left) {
+      return node.withRight(set(node.right, index - left - 1, value));
+    }
+
+    return new Node<>(node.left, value, node.right);
+  }
+
+  private static int size(final Node<?> node) {
+    return node != null ? node.size : 0;
+  }
+
+  E get(final int index) {
+    checkIndex(index, size());
+
+    return get(root, index);
+  }
+
+  Sequence<E> insert(final int index, final E value) {
+    checkIndex(index, size() + 1);
+
+    return new Sequence<>(insert(root, index, value));
+  }
+
+  public Iterator<E> iterator() {
+    return new Iterator<>() {
+      private final Deque<Node<E>> stack = new ArrayDeque<>();
+
+      {
+        pushLeft(root);
+      }
+
+      public boolean hasNext() {
+        return !stack.isEmpty();
+      }
+
+      public E next() {
+        if (stack.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+
+        final Node<E> node = stack.pop();
+
+        pushLeft(node.right);
+
+        return node.value;
+      }
+
+      private void pushLeft(final Node<E> node) {
+        for (Node<E> n = node; n != null; n = n.left) {
+          stack.push(n);
+        }
+      }
+    };
+  }
+
+  Sequence<E> remove(final int index) {
+    checkIndex(index, size());
+
+    final Node<E> result = remove(root, index);
+
+    return result != null ? new Sequence<>(result) : empty();
+  }
+
+  Sequence<E> set(final int index, final E value) {
+    checkIndex(index, size());
+
+    return new Sequence<>(set(root, index, value));
+  }
+
+  int size() {
+    return size(root);
+  }
+
+  private static class Node<E> {
+    private final int height;
+    private final Node<E> left;
+    private final Node<E> right;
+    private final int size;
+    private final E value;
+
+    private Node(final Node<E> left, final E value, final Node<E> right) {
+      this.left = left;
+      this.value = value;
+      this.right = right;
+      this.height = Math.max(height(left), height(right)) + 1;
+      this.size = size(left) + size(right) + 1;
+    }
+
+    private Node<E> withLeft(final Node<E> left) {
+      return new Node<>(left, value, right);
+    }
+
+    private Node<E> withRight(final Node<E> right) {
+      return new Node<>(left, value, right);
+    }
+  }
+}
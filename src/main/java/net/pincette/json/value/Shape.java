@@ -0,0 +1,164 @@
+package net.pincette.json.value;
+
+import static java.util.Arrays.copyOf;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The key layout of compact objects. Objects with the same keys in the same order share one shape,
+ * so they only store their values. The shapes form a tree of transitions, which starts at the empty
+ * shape and adds one key at a time. The key positions of large shapes are looked up with a hash
+ * table, which is built once for all objects of the shape.
+ *
+ * <p>The tree is bounded. Beyond a number of keys or transitions per shape, or when the total
+ * number of registered shapes has been reached, objects get a shape of their own, which is not
+ * registered. This keeps objects that are used as maps with arbitrary keys from filling the tree.
+ * Registered shapes are never removed, so the total limits the memory the tree can take.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class Shape {
+  static final Shape EMPTY = new Shape(new String[0], true);
+  static final int MAX_SHAPES = 4096;
+  static final int THRESHOLD = 8;
+
+  private static final int MAX_KEYS = 128;
+  private static final int MAX_TRANSITIONS = 256;
+  private static final AtomicInteger registered = new AtomicInteger();
+
+  final String[] keys;
+  private final Map<String, Shape> transitions;
+  private volatile int[] table;
+
+  private Shape(final String[] keys, final boolean shared) {
+    this.keys = keys;
+    this.transitions = shared && keys.length < MAX_KEYS ? new ConcurrentHashMap<>() : null;
+  }
+
+  private static int hash(final String key, final int mask) {
+    final int h = key.hashCode();
+
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private static boolean hasDuplicates(final String[] keys, final int size) {
+    final Set<String> seen = new HashSet<>();
+
+    for (int i = 0; i < size; ++i) {
+      if (!seen.add(keys[i])) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the shape for the first <code>size</code> keys, which are not retained.
+   *
+   * @return The shape or <code>null</code> when there are duplicate keys.
+   */
+  static Shape of(final String[] keys, final int size) {
+    Shape shape = EMPTY;
+
+    for (int i = 0; i < size; ++i) {
+      if (shape.indexOf(keys[i]) != -1) {
+        return null;
+      }
+
+      final Shape next = shape.transition(keys[i]);
+
+      if (next == null) {
+        return hasDuplicates(keys, size) ? null : new Shape(copyOf(keys, size), false);
+      }
+
+      shape = next;
+    }
+
+    return shape;
+  }
+
+  /** Returns the number of shapes that have been registered in the tree. */
+  static int registered() {
+    return registered.get();
+  }
+
+  private static int[] table(final String[] keys) {
+    final int[] result = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+    final int mask = result.length - 1;
+
+    for (int i = 0; i < keys.length; ++i) {
+      int h = hash(keys[i], mask);
+
+      while (result[h] != 0) {
+        h = (h + 1) & mask;
+      }
+
+      result[h] = i + 1;
+    }
+
+    return result;
+  }
+
+  int indexOf(final String key) {
+    if (keys.length <= THRESHOLD) {
+      for (int i = 0; i < keys.length; ++i) {
+        if (keys[i].equals(key)) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
+
+    int[] t = table;
+
+    if (t == null) {
+      t = table(keys);
+      table = t;
+    }
+
+    final int mask = t.length - 1;
+
+    for (int h = hash(key, mask); t[h] != 0; h = (h + 1) & mask) {
+      if (keys[t[h] - 1].equals(key)) {
+        return t[h] - 1;
+      }
+    }
+
+    return -1;
+  }
+
+  private Shape transition(final String key) {
+    if (transitions == null) {
+      return null;
+    }
+
+    final Shape shape = transitions.get(key);
+
+    if (shape != null || transitions.size() >= MAX_TRANSITIONS || registered.get() >= MAX_SHAPES) {
+      return shape;
+    }
+
+    return transitions.computeIfAbsent(
+        key,
+        k -> {
+          if (registered.incrementAndGet() > MAX_SHAPES) {
+            registered.decrementAndGet();
+
+            return null;
+          }
+
+          final String[] extended = copyOf(keys, keys.length + 1);
+
+          extended[keys.length] = k;
+
+          return new Shape(extended, true);
+        });
+  }
+}
@@ -0,0 +1,22 @@
+package net.pincette.json.value;
+
+/**
+ * A value that is a view on a range of UTF-8 encoded JSON text.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+interface Slice {
+  byte[] bytes();
+
+  /** The exclusive end of the range. */
+  int end();
+
+  /**
+   * Returns <code>true</code> when the range can be written as it is. This is not the case when an
+   * object in it has a key more than once, because only the last value is kept.
+   */
+  boolean isVerbatim();
+
+  int start();
+}
@@ -0,0 +1,99 @@
+package net.pincette.json.value;
+
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Produces the compact JSON text of values, without going through a generator.
+ *
+ * @author Werner Donné
+ * @since 2.2
+ */
+class Text {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private Text() {}
+
+  static void quote(final String s, final StringBuilder builder) {
+    builder.append('"');
+
+    for (int i = 0; i < s.length(); ++i) {
+      final char c = s.charAt(i);
+
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\b' -> builder.append("\\b");
+        case '\f' -> builder.append("\\f");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+          } else {
+            builder.append(c);
+          }
+        }
+      }
+    }
+
+    builder.append('"');
+  }
+
+  static String toString(final JsonValue value) {
+    final StringBuilder builder = new StringBuilder();
+
+    write(value, builder);
+
+    return builder.toString();
+  }
+
+  static void write(final JsonValue value, final StringBuilder builder) {
+    switch (value.getValueType()) {
+      case ARRAY -> writeArray((JsonArray) value, builder);
+      case OBJECT -> writeObject((JsonObject) value, builder);
+      case STRING -> quote(((JsonString) value).getString(), builder);
+      default -> builder.append(value);
+    }
+  }
+
+  private static void writeArray(final JsonArray array, final StringBuilder builder) {
+    boolean first = true;
+
+    builder.append('[');
+
+    for (final JsonValue v : array) {
+      if (!first) {
+        builder.append(',');
+      }
+
+      first = false;
+      write(v, builder);
+    }
+
+    builder.append(']');
+  }
+
+  private static void writeObject(final JsonObject object, final StringBuilder builder) {
+    boolean first = true;
+
+    builder.append('{');
+
+    for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
+      if (!first) {
+        builder.append(',');
+      }
+
+      first = false;
+      quote(entry.getKey(), builder);
+      builder.append(':');
+      write(entry.getValue(), builder);
+    }
+
+    builder.append('}');
+  }
+}
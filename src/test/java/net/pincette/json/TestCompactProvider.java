@@ -0,0 +1,50 @@
+package net.pincette.json;
+
+import static javax.json.spi.JsonProvider.provider;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.StringReader;
+import javax.json.JsonObject;
+import javax.json.spi.JsonProvider;
+import net.pincette.json.value.CompactProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestCompactProvider {
+  private static final JsonProvider COMPACT = new CompactProvider();
+  private static final String JSON =
+      "{\"a\":1,\"b\":[\"x\\n\",true,null,1.5,{}],\"c\":3000000000,\"d\":{\"e\":[]},\"a\":2,"
+          + "\"f1\":1,\"f2\":2,\"f3\":3,\"f4\":4,\"f5\":5,\"f6\":6,\"f7\":7,\"f8\":8}";
+
+  private static JsonObject read(final JsonProvider provider) {
+    return provider.createReader(new StringReader(JSON)).readObject();
+  }
+
+  @Test
+  @DisplayName("builders")
+  void builders() {
+    final JsonObject obj = read(COMPACT);
+
+    assertEquals(
+        read(provider()).getJsonArray("b"),
+        COMPACT.createArrayBuilder(obj.getJsonArray("b")).remove(0).add(0, "x\n").build());
+    assertEquals(8, COMPACT.createObjectBuilder(obj).add("f8", 8).remove("a").build().getInt("f8"));
+    assertSame(COMPACT.createValue(5), COMPACT.createValue(5));
+    assertSame(COMPACT.createObjectBuilder().build(), COMPACT.createObjectBuilder().build());
+  }
+
+  @Test
+  @DisplayName("compatible")
+  void compatible() {
+    final JsonObject compact = read(COMPACT);
+    final JsonObject standard = read(provider());
+
+    assertEquals(standard, compact);
+    assertEquals(compact, standard);
+    assertEquals(standard.hashCode(), compact.hashCode());
+    assertEquals(standard.toString(), compact.toString());
+    assertEquals(2, compact.getInt("a"));
+    assertEquals(8, compact.getInt("f8"));
+  }
+}
@@ -0,0 +1,49 @@
+package net.pincette.json;
+
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonOrYaml.read;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import javax.json.JsonStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestJsonOrYaml {
+  private static final JsonStructure JSON =
+      o(f("a", v(1)), f("b", a(v("x"), v(true), v(1.5), o())), f("c", v(3000000000L)));
+
+  private static Optional<JsonStructure> roundTrip(
+      final BiConsumer<JsonStructure, OutputStream> write) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    write.accept(JSON, out);
+
+    return read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  @Test
+  @DisplayName("cbor")
+  void cbor() {
+    assertEquals(Optional.of(JSON), roundTrip(JsonOrYaml::writeCbor));
+  }
+
+  @Test
+  @DisplayName("json")
+  void json() {
+    assertEquals(Optional.of(JSON), roundTrip(JsonOrYaml::writeJson));
+  }
+
+  @Test
+  @DisplayName("smile")
+  void smile() {
+    assertEquals(Optional.of(JSON), roundTrip(JsonOrYaml::writeSmile));
+  }
+}
@@ -0,0 +1,126 @@
+package net.pincette.json;
+
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import javax.json.JsonStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestJsonStructureDecoder {
+  private static ByteBuffer chunk(final String s) {
+    return wrap(s.getBytes(UTF_8));
+  }
+
+  @Test
+  @DisplayName("feed")
+  void feed() {
+    final JsonStructureDecoder decoder = new JsonStructureDecoder();
+    final Collector collector = new Collector();
+
+    decoder.subscribe(collector);
+    decoder.feed(chunk("{\"a\":1} 2 [tr"));
+    assertTrue(collector.received.isEmpty());
+    collector.subscription.request(1);
+    assertEquals(List.of(o(f("a", v(1)))), collector.received);
+    decoder.feed(chunk("ue]{\"b\":"));
+    decoder.feed(chunk("{}}"));
+    decoder.complete();
+    assertFalse(collector.completed);
+    collector.subscription.request(2);
+    assertEquals(List.of(o(f("a", v(1))), a(v(true)), o(f("b", o()))), collector.received);
+    assertTrue(collector.completed);
+  }
+
+  @Test
+  @DisplayName("request zero")
+  void requestZero() {
+    final JsonStructureDecoder decoder = new JsonStructureDecoder();
+    final Collector collector = new Collector();
+    final Upstream upstream = new Upstream();
+
+    decoder.onSubscribe(upstream);
+    decoder.subscribe(collector);
+    collector.subscription.request(1);
+    decoder.onNext(chunk("{\"a\":1}{\"a\":2}{\"a\":3}"));
+    collector.subscription.request(0);
+    assertEquals(List.of(o(f("a", v(1)))), collector.received);
+    assertInstanceOf(IllegalArgumentException.class, collector.error);
+    assertTrue(upstream.cancelled);
+  }
+
+  @Test
+  @DisplayName("upstream demand")
+  void upstreamDemand() {
+    final JsonStructureDecoder decoder = new JsonStructureDecoder();
+    final Collector collector = new Collector();
+    final Upstream upstream = new Upstream();
+
+    decoder.onSubscribe(upstream);
+    decoder.subscribe(collector);
+    assertEquals(0, upstream.requested);
+    collector.subscription.request(1);
+    assertEquals(1, upstream.requested);
+    decoder.onNext(chunk("{\"a\":1}{\"a\":2}"));
+    assertEquals(List.of(o(f("a", v(1)))), collector.received);
+    assertEquals(1, upstream.requested);
+    collector.subscription.request(1);
+    assertEquals(List.of(o(f("a", v(1))), o(f("a", v(2)))), collector.received);
+    assertEquals(1, upstream.requested);
+    collector.subscription.request(1);
+    assertEquals(2, upstream.requested);
+    decoder.onComplete();
+    assertTrue(collector.completed);
+    assertNull(collector.error);
+  }
+
+  private static class Collector implements Subscriber<JsonStructure> {
+    private final List<JsonStructure> received = new ArrayList<>();
+    private boolean completed;
+    private Throwable error;
+    private Subscription subscription;
+
+    public void onComplete() {
+      completed = true;
+    }
+
+    public void onError(final Throwable throwable) {
+      error = throwable;
+    }
+
+    public void onNext(final JsonStructure item) {
+      received.add(item);
+    }
+
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+    }
+  }
+
+  private static class Upstream implements Subscription {
+    private boolean cancelled;
+    private long requested;
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public void request(final long n) {
+      requested += n;
+    }
+  }
+}
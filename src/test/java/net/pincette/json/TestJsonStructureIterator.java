@@ -0,0 +1,36 @@
+package net.pincette.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.util.StreamUtil.stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import javax.json.JsonStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestJsonStructureIterator {
+  private static List<JsonStructure> read(final String s) {
+    return stream(new JsonStructureIterator(new ByteArrayInputStream(s.getBytes(UTF_8)))).toList();
+  }
+
+  @Test
+  @DisplayName("framing")
+  void framing() {
+    assertEquals(
+        List.of(
+            o(f("a", v("}{")), f("b", a(v("]\"["), v(1)))), a(o(f("c", v("é\\"))), v(true)), o()),
+        read("{\"a\": \"}{\", \"b\": [\"]\\\"[\", 1]}\n[{\"c\": \"é\\\\\"}, true] , {}"));
+  }
+
+  @Test
+  @DisplayName("incomplete")
+  void incomplete() {
+    assertEquals(List.of(o(f("a", v(1)))), read("{\"a\": 1}\n{\"b\": "));
+  }
+}
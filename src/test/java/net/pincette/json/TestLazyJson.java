@@ -0,0 +1,85 @@
+package net.pincette.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.json.spi.JsonProvider.provider;
+import static net.pincette.json.JsonUtil.createObjectBuilder;
+import static net.pincette.json.JsonUtil.fromLazy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import net.pincette.json.value.LazyJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestLazyJson {
+  private static final String JSON =
+      " {\"a\" : 1, \"b\":[\"x\\n"
+          + "\\u00e9\\ud83d\\ude00\", true, null, -1.5e3, {}], \"c\":3000000000,\"d\":{ \"e\" : [ ]"
+          + " },\"a\":2, \"\u00e9\":\"\u00e9\"} ";
+
+  private static JsonObject lazy(final String json) {
+    final byte[] bytes = json.getBytes(UTF_8);
+
+    return (JsonObject) LazyJson.read(bytes, 0, bytes.length);
+  }
+
+  private static String write(final JsonObject json) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    LazyJson.write(json, out);
+
+    return out.toString(UTF_8);
+  }
+
+  @Test
+  @DisplayName("compatible")
+  void compatible() {
+    final JsonObject lazy = lazy(JSON);
+    final JsonObject standard = provider().createReader(new StringReader(JSON)).readObject();
+
+    assertEquals(standard, lazy);
+    assertEquals(lazy, standard);
+    assertEquals(standard.hashCode(), lazy.hashCode());
+    assertEquals(standard.toString(), lazy.toString());
+    assertEquals(2, lazy.getInt("a"));
+  }
+
+  @Test
+  @DisplayName("errors")
+  void errors() {
+    assertThrows(JsonException.class, () -> lazy("{\"a\":1}}"));
+    assertThrows(JsonException.class, () -> lazy("{\"a\" 1}").size());
+    assertThrows(JsonException.class, () -> lazy("{\"a\":tru}").get("a"));
+    assertFalse(fromLazy("[1,".getBytes(UTF_8), 0, 3).isPresent());
+
+    for (final String number : new String[] {"01", "-01", "+1", ".5", "1.", "1e", "1e+", "-"}) {
+      assertThrows(JsonException.class, () -> lazy("{\"a\":" + number + "}").get("a"));
+    }
+
+    final String numbers = "{\"a\":[0,-0.5,1E+3,1.5e-2,-0e0,100000000000000000000]}";
+
+    assertEquals(provider().createReader(new StringReader(numbers)).readObject(), lazy(numbers));
+  }
+
+  @Test
+  @DisplayName("write")
+  void write() {
+    final JsonObject lazy = lazy(JSON);
+
+    assertEquals(
+        "{\"a\":2,\"b\":[\"x\\n\\u00e9\\ud83d\\ude00\", true, null, -1.5e3, {}],"
+            + "\"c\":3000000000,\"d\":{ \"e\" : [ ] },\"\u00e9\":\"\u00e9\"}",
+        write(lazy));
+    assertEquals("{ \"a\" : [ 1 ] }", write(lazy("{ \"a\" : [ 1 ] }")));
+    assertEquals(
+        "{\"a\":[{\"b\":2},{\"c\" : 1}]}", write(lazy("{\"a\":[{\"b\":1, \"b\":2},{\"c\" : 1}]}")));
+    assertEquals(
+        "{\"d\":{ \"e\" : [ ] },\"f\":\"\\n\"}",
+        write(createObjectBuilder().add("d", lazy.getJsonObject("d")).add("f", "\n").build()));
+  }
+}
@@ -0,0 +1,100 @@
+package net.pincette.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.writeString;
+import static java.nio.file.StandardOpenOption.READ;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import javax.json.JsonStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestMappedJsonStructureSpliterator {
+  private static int collect(
+      final Spliterator<JsonStructure> spliterator, final List<JsonStructure> result) {
+    final Spliterator<JsonStructure> prefix = spliterator.trySplit();
+    final int splits =
+        prefix != null ? 1 + collect(prefix, result) + collect(spliterator, result) : 0;
+
+    if (prefix == null) {
+      spliterator.forEachRemaining(result::add);
+    }
+
+    return splits;
+  }
+
+  private static List<JsonStructure> read(
+      final String json, final boolean newlineDelimited, final int window, final int minSplits)
+      throws IOException {
+    final Path path = createTempFile("test", ".json");
+
+    try {
+      writeString(path, json, UTF_8);
+
+      try (FileChannel channel = FileChannel.open(path, READ)) {
+        final List<JsonStructure> result = new ArrayList<>();
+
+        assertTrue(
+            collect(new MappedJsonStructureSpliterator(channel, newlineDelimited, window), result)
+                >= minSplits);
+
+        return result;
+      }
+    } finally {
+      delete(path);
+    }
+  }
+
+  private static List<JsonStructure> structures() {
+    return IntStream.range(0, 50000)
+        .mapToObj(
+            i ->
+                i % 2 == 0
+                    ? (JsonStructure) o(f("i", v(i)), f("s", v("}{\"" + "x".repeat(i % 50))))
+                    : a(v(i), o(f("a", a(v("]["))))))
+        .toList();
+  }
+
+  private static String toString(final List<JsonStructure> structures, final String separator) {
+    return String.join(separator, structures.stream().map(JsonStructure::toString).toList());
+  }
+
+  @Test
+  @DisplayName("growth")
+  void growth() throws IOException {
+    final List<JsonStructure> expected =
+        List.of(o(f("a", v("x".repeat(10000))), f("b", a(v(1), v(2)))), o(f("c", v(true))));
+
+    assertEquals(expected, read(toString(expected, " "), false, 1024, 0));
+  }
+
+  @Test
+  @DisplayName("split concatenated")
+  void splitConcatenated() throws IOException {
+    final List<JsonStructure> expected = structures();
+
+    assertEquals(expected, read(toString(expected, " "), false, 4096, 1));
+  }
+
+  @Test
+  @DisplayName("split newline-delimited")
+  void splitNewlineDelimited() throws IOException {
+    final List<JsonStructure> expected = structures();
+
+    assertEquals(expected, read(toString(expected, "\n"), true, 4096, 1));
+  }
+}
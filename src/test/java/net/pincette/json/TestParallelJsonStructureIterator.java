@@ -0,0 +1,68 @@
+package net.pincette.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static net.pincette.util.StreamUtil.stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import javax.json.JsonStructure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestParallelJsonStructureIterator {
+  private static String input() {
+    final StringBuilder builder = new StringBuilder();
+
+    for (int i = 0; i < 200; ++i) {
+      builder.append("{\"i\":").append(i).append(",\"a\":[");
+
+      // Structures of very different sizes finish parsing out of order.
+      for (int j = 0; j < (i % 7) * 500; ++j) {
+        builder.append(j).append(',');
+      }
+
+      builder.append("0]}\n");
+    }
+
+    return builder.toString();
+  }
+
+  @Test
+  @DisplayName("close")
+  void close() throws Exception {
+    final PipedOutputStream out = new PipedOutputStream();
+    final ParallelJsonStructureIterator iterator =
+        new ParallelJsonStructureIterator(new PipedInputStream(out));
+
+    out.write("{\"a\":1}".getBytes(UTF_8));
+    out.flush();
+    assertEquals(1, iterator.next().asJsonObject().getInt("a"));
+    iterator.close();
+    assertFalse(iterator.hasNext());
+    out.close();
+  }
+
+  @Test
+  @DisplayName("ordered")
+  void ordered() {
+    final byte[] bytes = input().getBytes(UTF_8);
+    final ExecutorService executor = newFixedThreadPool(4);
+    final List<JsonStructure> expected =
+        stream(new JsonStructureIterator(new ByteArrayInputStream(bytes))).toList();
+
+    assertEquals(200, expected.size());
+
+    try (ParallelJsonStructureIterator iterator =
+        new ParallelJsonStructureIterator(new ByteArrayInputStream(bytes), executor, 3)) {
+      assertEquals(expected, stream(iterator).toList());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package net.pincette.json;
+
+import static javax.json.Json.createValue;
+import static net.pincette.json.JsonUtil.add;
+import static net.pincette.json.JsonUtil.from;
+import static net.pincette.json.JsonUtil.remove;
+import static net.pincette.json.JsonUtil.removeTechnical;
+import static net.pincette.json.JsonUtil.set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import net.pincette.json.value.PersistentArray;
+import net.pincette.json.value.PersistentObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestPersistent {
+  private static final JsonObject JSON =
+      from("{\"a\":{\"b\":{\"c\":1}},\"_x\":1,\"d\":[1,2,3],\"e\":2}")
+          .map(JsonValue::asJsonObject)
+          .orElseThrow();
+
+  @Test
+  @DisplayName("edits")
+  void edits() {
+    final JsonObject persistent = PersistentObject.of(JSON);
+    final JsonArray array = PersistentArray.of(JSON.getJsonArray("d"));
+
+    assertEquals(add(JSON, "a.b.d", 5), add(persistent, "a.b.d", 5));
+    assertInstanceOf(PersistentObject.class, add(persistent, "a.b.d", 5));
+    assertEquals(set(JSON, "a.b.c", 7), set(persistent, "a.b.c", 7));
+    assertEquals(add(JSON, "a~1b", 2), add(persistent, "a~1b", 2));
+    assertEquals(add(JSON, "a.b.c~0d", 2), add(persistent, "a.b.c~0d", 2));
+    assertEquals(set(add(JSON, "a~1b", 2), "a/b", 3), set(add(persistent, "a~1b", 2), "a/b", 3));
+    assertEquals(removeTechnical(JSON), removeTechnical(persistent));
+    assertEquals(add(JSON, "f", "g").toString(), add(persistent, "f", "g").toString());
+    assertEquals(set(JSON.getJsonArray("d"), 3, 4), set(array, 3, 4));
+    assertEquals(remove(JSON.getJsonArray("d"), 1), remove(array, 1));
+    assertInstanceOf(PersistentArray.class, remove(array, 1));
+  }
+
+  @Test
+  @DisplayName("many")
+  void many() {
+    final List<JsonValue> list = new ArrayList<>();
+    final Map<String, JsonValue> map = new LinkedHashMap<>();
+    PersistentArray array = PersistentArray.EMPTY;
+    PersistentObject object = PersistentObject.EMPTY;
+
+    for (int i = 0; i < 5000; ++i) {
+      final String key = "k" + (i * 7919 % 1000);
+      final JsonValue value = createValue(i);
+
+      if (i % 3 == 2) {
+        map.remove(key);
+        object = object.without(key);
+        list.remove(list.size() / 2);
+        array = array.without(array.size() / 2);
+      } else {
+        map.put(key, value);
+        object = object.with(key, value);
+        list.add(list.size() / 3, value);
+        array = array.inserted(array.size() / 3, value);
+      }
+    }
+
+    assertEquals(map, object);
+    assertEquals(new ArrayList<>(map.keySet()), new ArrayList<>(object.keySet()));
+    assertEquals(list, array);
+  }
+}
@@ -0,0 +1,78 @@
+package net.pincette.json.filter;
+
+import static java.util.stream.Collectors.joining;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestBatchingGeneratorFilter {
+  private static JsonStructure batch(final String json, final BatchingGeneratorFilter filter) {
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final GeneratorPipeline pipeline = GeneratorPipeline.builder().thenApply(filter).build(sink);
+    final JsonParser parser = createParser(new StringReader(json));
+    final Event[] events = new Event[16];
+    final JsonValue[] values = new JsonValue[16];
+    int length;
+
+    while ((length = GeneratorPipeline.read(parser, events, values)) > 0) {
+      pipeline.write(events, values, length);
+    }
+
+    return sink.build();
+  }
+
+  @Test
+  @DisplayName("age")
+  void age() {
+    assertEquals(
+        a(a(v(1)), a(o()), a(v("x"))),
+        batch("[1,{},\"x\"]", new BatchingGeneratorFilter(10, Long.MAX_VALUE, Duration.ZERO)));
+  }
+
+  @Test
+  @DisplayName("bytes")
+  void bytes() {
+    final String element = "{\"a\":1}";
+
+    final JsonValue object = o(f("a", v(1)));
+
+    assertEquals(
+        a(a(object, object), a(object, object), a(object)),
+        batch(
+            IntStream.range(0, 5).mapToObj(i -> element).collect(joining(",", "[", "]")),
+            new BatchingGeneratorFilter(100, 2 * (element.length() + 1), null)));
+  }
+
+  @Test
+  @DisplayName("no array")
+  void noArray() {
+    assertEquals(
+        o(f("a", a(v(1), v(2), v(3)))), batch("{\"a\":[1,2,3]}", new BatchingGeneratorFilter(2)));
+  }
+
+  @Test
+  @DisplayName("size")
+  void size() {
+    assertEquals(
+        a(
+            a(v(1), o(f("a", a(v(1), o(f("b", v(true))))))),
+            a(a(v(2), a()), v("x")),
+            a(JsonValue.NULL)),
+        batch("[1,{\"a\":[1,{\"b\":true}]},[2,[]],\"x\",null]", new BatchingGeneratorFilter(2)));
+    assertEquals(a(a(v(1))), batch("[1]", new BatchingGeneratorFilter(2)));
+    assertEquals(a(), batch("[]", new BatchingGeneratorFilter(2)));
+  }
+}
@@ -0,0 +1,138 @@
+package net.pincette.json.filter;
+
+import static java.lang.reflect.Proxy.newProxyInstance;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import javax.json.JsonObject;
+import javax.json.JsonValue.ValueType;
+import net.pincette.json.filter.FlushingGenerator.Policy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestFlushingGenerator {
+  private static GeneratorPipeline pipeline(final FlushingGenerator flushing) {
+    return GeneratorPipeline.builder().thenApply(flushing).build(new JsonTreeGenerator());
+  }
+
+  /** An object that fails when it is serialized. */
+  private static JsonObject unserializable() {
+    return (JsonObject)
+        newProxyInstance(
+            TestFlushingGenerator.class.getClassLoader(),
+            new Class<?>[] {JsonObject.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getValueType")) {
+                return ValueType.OBJECT;
+              }
+
+              throw new AssertionError(method.getName() + " was called");
+            });
+  }
+
+  private static long write(final Policy policy) {
+    final FlushingGenerator flushing = new FlushingGenerator(policy);
+    final GeneratorPipeline pipeline = pipeline(flushing);
+
+    pipeline.writeStartArray();
+    pipeline.write(unserializable());
+    pipeline.writeStartObject();
+    pipeline.write("a", unserializable());
+    pipeline.writeEnd();
+    pipeline.writeEnd();
+
+    return flushing.getFlushes();
+  }
+
+  @Test
+  @DisplayName("bytes")
+  void bytes() {
+    final FlushingGenerator flushing = new FlushingGenerator(new Policy().withBytes(10));
+    final GeneratorPipeline pipeline = pipeline(flushing);
+
+    pipeline.writeStartArray(); // 1
+    assertEquals(0, flushing.getFlushes());
+    pipeline.write(v("abcdefg")); // 10
+    assertEquals(1, flushing.getFlushes());
+    pipeline.writeStartObject(); // 1
+    assertEquals(1, flushing.getFlushes());
+    pipeline.write("a", v(1)); // 6
+    assertEquals(1, flushing.getFlushes());
+    pipeline.writeEnd(); // 7
+    assertEquals(1, flushing.getFlushes());
+    pipeline.writeNull(); // 11
+    assertEquals(2, flushing.getFlushes());
+    pipeline.writeEnd(); // 1
+    assertEquals(2, flushing.getFlushes());
+  }
+
+  @Test
+  @DisplayName("elements")
+  void elements() {
+    final FlushingGenerator flushing = new FlushingGenerator(new Policy().withElements());
+    final GeneratorPipeline pipeline = pipeline(flushing);
+
+    pipeline.writeStartArray();
+    assertEquals(0, flushing.getFlushes());
+    pipeline.write(v(1));
+    assertEquals(1, flushing.getFlushes());
+    pipeline.writeStartObject();
+    pipeline.writeKey("a");
+    pipeline.writeStartArray();
+    pipeline.writeNull();
+    pipeline.writeEnd();
+    assertEquals(1, flushing.getFlushes());
+    pipeline.writeEnd();
+    assertEquals(2, flushing.getFlushes());
+    pipeline.writeNull();
+    assertEquals(3, flushing.getFlushes());
+    pipeline.writeEnd();
+    assertEquals(4, flushing.getFlushes());
+  }
+
+  @Test
+  @DisplayName("every event")
+  void everyEvent() {
+    final FlushingGenerator flushing = new FlushingGenerator();
+    final GeneratorPipeline pipeline = pipeline(flushing);
+
+    pipeline.writeStartObject();
+    assertEquals(1, flushing.getFlushes());
+    pipeline.write("a", v(1));
+    assertEquals(2, flushing.getFlushes());
+    pipeline.writeKey("b");
+    assertEquals(3, flushing.getFlushes());
+    pipeline.writeNull();
+    assertEquals(4, flushing.getFlushes());
+    pipeline.writeEnd();
+    assertEquals(5, flushing.getFlushes());
+  }
+
+  @Test
+  @DisplayName("interval")
+  void interval() throws InterruptedException {
+    final FlushingGenerator flushing =
+        new FlushingGenerator(new Policy().withInterval(Duration.ofMillis(200)));
+    final GeneratorPipeline pipeline = pipeline(flushing);
+
+    pipeline.writeStartArray();
+    pipeline.write(v(1));
+    assertEquals(0, flushing.getFlushes());
+    Thread.sleep(250);
+    pipeline.write(v(2));
+    assertEquals(1, flushing.getFlushes());
+    pipeline.write(v(3));
+    assertEquals(1, flushing.getFlushes());
+    Thread.sleep(250);
+    pipeline.writeEnd();
+    assertEquals(2, flushing.getFlushes());
+  }
+
+  @Test
+  @DisplayName("no serialization")
+  void noSerialization() {
+    assertEquals(3, write(new Policy().withElements()));
+    assertEquals(0, write(new Policy().withInterval(Duration.ofHours(1))));
+  }
+}
@@ -0,0 +1,225 @@
+package net.pincette.json.filter;
+
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
+import static javax.json.stream.JsonParser.Event.VALUE_NUMBER;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.json.JsonNumber;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestGeneratorPipeline {
+  private static void write(final String json, final GeneratorPipeline pipeline) {
+    final JsonParser parser = createParser(new StringReader(json));
+    final Event[] events = new Event[3];
+    final JsonValue[] values = new JsonValue[3];
+    int length;
+
+    while ((length = GeneratorPipeline.read(parser, events, values)) > 0) {
+      pipeline.write(events, values, length);
+    }
+  }
+
+  @Test
+  @DisplayName("batches")
+  void batches() {
+    final Recorder numbers = new Recorder(EnumSet.of(VALUE_NUMBER), true);
+    final Recorder all = new Recorder(EnumSet.allOf(Event.class), false);
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+
+    write(
+        "{\"a\":1,\"b\":[2,\"x\",{\"c\":3},true],\"d\":null}",
+        GeneratorPipeline.builder().thenApply(numbers).thenApply(all).build(sink));
+    assertEquals(
+        o(f("a", v(2)), f("b", a(v(3), v("x"), o(f("c", v(4))), v(true))), f("d", JsonValue.NULL)),
+        sink.build());
+    assertEquals(List.of("write 1", "write 2", "write 3"), numbers.log);
+    assertEquals(
+        List.of(
+            "start object",
+            "key a",
+            "write 2",
+            "key b",
+            "start array",
+            "write 3",
+            "write \"x\"",
+            "start object",
+            "key c",
+            "write 4",
+            "end",
+            "write true",
+            "end",
+            "key d",
+            "null",
+            "end"),
+        all.log);
+  }
+
+  @Test
+  @DisplayName("close and flush")
+  void closeAndFlush() {
+    final Recorder keys = new Recorder(EnumSet.of(KEY_NAME), false);
+    final Recorder numbers = new Recorder(EnumSet.of(VALUE_NUMBER), false);
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder()
+            .thenApply(keys)
+            .thenApply(numbers)
+            .build(new JsonTreeGenerator());
+
+    pipeline.flush();
+    pipeline.close();
+    assertEquals(List.of("flush", "close"), keys.log);
+    assertEquals(List.of("flush", "close"), numbers.log);
+  }
+
+  @Test
+  @DisplayName("named values")
+  void namedValues() {
+    final Recorder keys = new Recorder(EnumSet.of(KEY_NAME), false);
+    final Recorder numbers = new Recorder(EnumSet.of(VALUE_NUMBER), true);
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder().thenApply(numbers).thenApply(keys).build(sink);
+
+    pipeline.writeStartObject();
+    pipeline.write("a", v(1));
+    pipeline.write("b", v("x"));
+    pipeline.writeStartArray("c");
+    pipeline.write(v(2));
+    pipeline.writeNull();
+    pipeline.writeEnd();
+    pipeline.writeNull("d");
+    pipeline.writeStartObject("e");
+    pipeline.writeEnd();
+    pipeline.writeEnd();
+    assertEquals(
+        o(
+            f("a", v(2)),
+            f("b", v("x")),
+            f("c", a(v(3), JsonValue.NULL)),
+            f("d", JsonValue.NULL),
+            f("e", o())),
+        sink.build());
+    assertEquals(List.of("write a 1", "write 2"), numbers.log);
+    assertEquals(
+        List.of("write a 2", "write b \"x\"", "start array c", "null d", "start object e"),
+        keys.log);
+  }
+
+  /** Records the operations it sees and optionally increments numbers. */
+  private static class Recorder extends JsonGeneratorFilter {
+    private final Set<Event> events;
+    private final boolean increment;
+    private final List<String> log = new ArrayList<>();
+
+    private Recorder(final Set<Event> events, final boolean increment) {
+      this.events = events;
+      this.increment = increment;
+    }
+
+    @Override
+    public void close() {
+      log.add("close");
+      super.close();
+    }
+
+    @Override
+    public void flush() {
+      log.add("flush");
+      super.flush();
+    }
+
+    @Override
+    public Set<Event> getEvents() {
+      return events;
+    }
+
+    private JsonValue transform(final JsonValue value) {
+      return increment && value instanceof JsonNumber number ? v(number.intValue() + 1) : value;
+    }
+
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+      log.add("write " + value);
+
+      return super.write(transform(value));
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final JsonValue value) {
+      log.add("write " + name + " " + value);
+
+      return super.write(name, transform(value));
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+      log.add("end");
+
+      return super.writeEnd();
+    }
+
+    @Override
+    public JsonGenerator writeKey(final String name) {
+      log.add("key " + name);
+
+      return super.writeKey(name);
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+      log.add("null");
+
+      return super.writeNull();
+    }
+
+    @Override
+    public JsonGenerator writeNull(final String name) {
+      log.add("null " + name);
+
+      return super.writeNull(name);
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+      log.add("start array");
+
+      return super.writeStartArray();
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(final String name) {
+      log.add("start array " + name);
+
+      return super.writeStartArray(name);
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+      log.add("start object");
+
+      return super.writeStartObject();
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(final String name) {
+      log.add("start object " + name);
+
+      return super.writeStartObject(name);
+    }
+  }
+}
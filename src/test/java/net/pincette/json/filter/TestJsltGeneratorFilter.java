@@ -0,0 +1,43 @@
+package net.pincette.json.filter;
+
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import javax.json.stream.JsonGenerator;
+import net.pincette.json.Jslt.Context;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestJsltGeneratorFilter {
+  @Test
+  @DisplayName("elements")
+  void elements() {
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final JsonGenerator generator =
+        GeneratorPipeline.builder()
+            .thenApply(
+                new JsltGeneratorFilter(
+                    new Context(new StringReader("if (.a) {\"b\": .a * 2, \"c\": .c}"))))
+            .build(sink);
+
+    generator.writeStartArray();
+    generator.write(o(f("a", v(1))));
+    generator.writeStartObject();
+    generator.write("a", v(2));
+    generator.writeStartArray("c");
+    generator.writeStartObject();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeNull();
+    generator.write(o(f("x", v(3))));
+    generator.write(v(4));
+    generator.writeEnd();
+
+    assertEquals(a(o(f("b", v(2))), o(f("b", v(4)), f("c", a(o())))), sink.build());
+  }
+}
@@ -0,0 +1,99 @@
+package net.pincette.json.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static javax.json.stream.JsonParser.Event.VALUE_NUMBER;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringReader;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class TestJsonParserWrapper {
+  private static Entry<String, JsonValue> entry(final String key, final JsonValue value) {
+    return new SimpleImmutableEntry<>(key, value);
+  }
+
+  private static Stream<Function<String, JsonParser>> parsers() {
+    return Stream.of(
+        s -> createParser(new StringReader(s)), s -> JacksonParser.create(s.getBytes(UTF_8)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("parsers")
+  void objectStream(final Function<String, JsonParser> parser) {
+    final JsonParserWrapper wrapper =
+        new JsonParserWrapper(parser.apply("{\"a\":1,\"b\":{\"c\":[1]},\"d\":\"x\"}"));
+
+    assertThrows(IllegalStateException.class, wrapper::getObjectStream);
+    assertEquals(START_OBJECT, wrapper.next());
+    assertEquals(
+        List.of(entry("a", v(1)), entry("b", o(f("c", a(v(1))))), entry("d", v("x"))),
+        wrapper.getObjectStream().toList());
+    assertFalse(wrapper.hasNext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("parsers")
+  void skipEnclosing(final Function<String, JsonParser> parser) {
+    final JsonParserWrapper wrapper =
+        new JsonParserWrapper(parser.apply("{\"a\":[1,{\"x\":[2]},3],\"b\":2}"));
+
+    assertEquals(START_OBJECT, wrapper.next());
+    assertEquals(KEY_NAME, wrapper.next());
+    assertEquals(START_ARRAY, wrapper.next());
+    assertEquals(VALUE_NUMBER, wrapper.next());
+    wrapper.skipObject();
+    assertEquals(START_OBJECT, wrapper.next());
+    assertEquals(KEY_NAME, wrapper.next());
+    wrapper.skipArray();
+    assertEquals(START_ARRAY, wrapper.next());
+    assertEquals(VALUE_NUMBER, wrapper.next());
+    assertEquals(END_ARRAY, wrapper.next());
+    wrapper.skipObject();
+    assertEquals(VALUE_NUMBER, wrapper.next());
+    assertEquals(3, wrapper.getInt());
+    assertEquals(END_ARRAY, wrapper.next());
+    assertEquals(KEY_NAME, wrapper.next());
+    assertEquals("b", wrapper.getString());
+    wrapper.skipArray();
+    assertEquals(VALUE_NUMBER, wrapper.next());
+    assertEquals(2, wrapper.getInt());
+    wrapper.skipObject();
+    assertFalse(wrapper.hasNext());
+  }
+
+  @ParameterizedTest
+  @MethodSource("parsers")
+  void skipStarted(final Function<String, JsonParser> parser) {
+    final JsonParserWrapper wrapper =
+        new JsonParserWrapper(parser.apply("[{\"a\":{\"b\":[1,{}]}},[[]],3]"));
+
+    assertEquals(START_ARRAY, wrapper.next());
+    assertEquals(START_OBJECT, wrapper.next());
+    wrapper.skipObject();
+    assertEquals(START_ARRAY, wrapper.next());
+    wrapper.skipArray();
+    assertEquals(VALUE_NUMBER, wrapper.next());
+    assertEquals(3, wrapper.getInt());
+    assertEquals(END_ARRAY, wrapper.next());
+    assertFalse(wrapper.hasNext());
+  }
+}
@@ -0,0 +1,75 @@
+package net.pincette.json.filter;
+
+import static java.util.stream.Collectors.joining;
+import static net.pincette.json.filter.Util.writeEvent;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.json.JsonStructure;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import net.pincette.json.value.CompactProvider;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class TestJsonTreeGenerator {
+  private static final List<String> DOCUMENTS =
+      List.of(
+          "{}",
+          "[]",
+          "{\"a\":1,\"b\":-2.5e3,\"c\":12345678901234567890,\"d\":\"é\\n\",\"e\":true,"
+              + "\"f\":false,\"g\":null,\"h\":[],\"i\":{}}",
+          "[1,[2,[3,{\"a\":[4,{\"b\":{}}]}]],null,\"x\"]",
+          "[" + "[".repeat(40) + "{\"deep\":1}" + "]".repeat(40) + "]",
+          IntStream.range(0, 1000)
+              .mapToObj(i -> "\"k" + i + "\":[" + i + ",{\"v\":" + i + "}]")
+              .collect(joining(",", "{", "}")));
+
+  private static Stream<JsonProvider> providers() {
+    return Stream.of(JsonProvider.provider(), new CompactProvider());
+  }
+
+  private static JsonStructure read(final JsonProvider provider, final String json) {
+    return provider.createReader(new StringReader(json)).read();
+  }
+
+  private static JsonStructure stream(final JsonTreeGenerator generator, final String json) {
+    final JsonParser parser = JsonProvider.provider().createParser(new StringReader(json));
+
+    while (parser.hasNext()) {
+      writeEvent(parser.next(), parser, generator);
+    }
+
+    return generator.build();
+  }
+
+  @ParameterizedTest
+  @MethodSource("providers")
+  void incomplete(final JsonProvider provider) {
+    final JsonTreeGenerator generator = new JsonTreeGenerator(provider);
+
+    assertThrows(IllegalStateException.class, generator::build);
+    generator.writeStartObject();
+    generator.writeStartArray("a");
+    assertThrows(IllegalStateException.class, generator::build);
+  }
+
+  @ParameterizedTest
+  @MethodSource("providers")
+  void reader(final JsonProvider provider) {
+    final JsonTreeGenerator generator = new JsonTreeGenerator(provider);
+
+    for (final String json : DOCUMENTS) {
+      final JsonStructure expected = read(provider, json);
+      final JsonStructure actual = stream(generator, json);
+
+      assertEquals(expected, actual);
+      assertEquals(expected.toString(), actual.toString());
+      assertEquals(expected.getClass(), actual.getClass());
+    }
+  }
+}
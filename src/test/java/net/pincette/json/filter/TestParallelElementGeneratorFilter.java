@@ -0,0 +1,102 @@
+package net.pincette.json.filter;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestParallelElementGeneratorFilter {
+  private static JsonStructure run(
+      final UnaryOperator<JsonValue> function, final ExecutorService executor, final int count) {
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder()
+            .thenApply(new ParallelElementGeneratorFilter(function, executor, 8))
+            .build(sink);
+
+    pipeline.writeStartArray();
+
+    for (int i = 0; i < count; ++i) {
+      pipeline.writeStartObject();
+      pipeline.write("i", v(i));
+      pipeline.writeStartArray("a");
+      pipeline.write(v(i));
+      pipeline.writeEnd();
+      pipeline.writeEnd();
+      pipeline.write(v(i));
+      pipeline.writeNull();
+    }
+
+    pipeline.writeEnd();
+
+    return sink.build();
+  }
+
+  private static JsonValue slow(final JsonValue value) {
+    if (value instanceof JsonObject object) {
+      // Later elements finish earlier.
+      LockSupport.parkNanos((20 - object.getInt("i") % 20) * 100000L);
+
+      return o(f("i", v(object.getInt("i") * 10)));
+    }
+
+    return value instanceof JsonNumber number && number.intValue() % 2 == 1 ? null : value;
+  }
+
+  @Test
+  @DisplayName("error")
+  void error() {
+    final ExecutorService executor = newFixedThreadPool(4);
+
+    try {
+      assertThrows(
+          IllegalStateException.class,
+          () ->
+              run(
+                  value -> {
+                    throw new IllegalStateException();
+                  },
+                  executor,
+                  1));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("ordered")
+  void ordered() {
+    final ExecutorService executor = newFixedThreadPool(4);
+
+    try {
+      assertEquals(
+          a(
+              IntStream.range(0, 100)
+                  .boxed()
+                  .flatMap(
+                      i ->
+                          i % 2 == 0
+                              ? Stream.of(o(f("i", v(i * 10))), v(i), JsonValue.NULL)
+                              : Stream.of(o(f("i", v(i * 10))), JsonValue.NULL))
+                  .toArray(JsonValue[]::new)),
+          run(TestParallelElementGeneratorFilter::slow, executor, 100));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package net.pincette.json.filter;
+
+import static java.util.Set.of;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createGenerator;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Set;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestProjectingGenerator {
+  private static final String JSON =
+      "{\"a\":{\"b\":1,\"c\":{\"d\":2,\"e\":3}},\"f\":[{\"g\":1,\"h\":2},{\"g\":3}],\"i\":4}";
+
+  private static String include(final Set<String> paths) {
+    final StringWriter writer = new StringWriter();
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder()
+            .thenApply(new ProjectingGenerator(paths, true))
+            .build(createGenerator(writer));
+    final JsonParser parser = createParser(new StringReader(JSON));
+    final Event[] events = new Event[4];
+    final JsonValue[] values = new JsonValue[4];
+    int length;
+
+    while ((length = GeneratorPipeline.read(parser, events, values)) > 0) {
+      pipeline.write(events, values, length);
+    }
+
+    pipeline.close();
+
+    return writer.toString();
+  }
+
+  @Test
+  @DisplayName("drop keyed structures")
+  void dropKeyedStructures() {
+    final StringWriter writer = new StringWriter();
+    final JsonGenerator generator =
+        GeneratorPipeline.builder()
+            .thenApply(new ProjectingGenerator(of("*.a"), false))
+            .build(createGenerator(writer));
+
+    generator.writeStartArray();
+    generator.writeStartObject();
+    generator.writeKey("a");
+    generator.writeStartObject();
+    generator.writeKey("b");
+    generator.writeStartObject();
+    generator.writeEnd();
+    generator.writeKey("c");
+    generator.writeStartArray();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeStartArray();
+    generator.writeStartArray();
+    generator.writeStartObject();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.writeEnd();
+    generator.close();
+
+    assertEquals("[{},[[{}]]]", writer.toString());
+  }
+
+  @Test
+  @DisplayName("include arrays")
+  void includeArrays() {
+    assertEquals("{\"f\":[{\"g\":1},{\"g\":3}],\"i\":4}", include(of("f.*.g", "i")));
+    assertEquals("{\"f\":[{\"g\":3}]}", include(of("f.1")));
+    assertEquals("{\"f\":[{\"h\":2}]}", include(of("/f/*/h")));
+  }
+
+  @Test
+  @DisplayName("include nested paths")
+  void includeNestedPaths() {
+    assertEquals("{\"a\":{\"b\":1,\"c\":{\"d\":2,\"e\":3}}}", include(of("a", "a.c.d")));
+    assertEquals("{\"a\":{\"c\":{\"d\":2,\"e\":3}}}", include(of("a.c", "/a/c/e")));
+    assertEquals("{}", include(of("x", "a.x", "a.c.d.x")));
+  }
+
+  @Test
+  @DisplayName("include sibling paths")
+  void includeSiblingPaths() {
+    assertEquals("{\"a\":{\"b\":1,\"c\":{\"d\":2}}}", include(of("a.c.d", "a.b")));
+    assertEquals("{\"a\":{\"c\":{\"d\":2,\"e\":3}},\"i\":4}", include(of("a.c.e", "a.c.d", "i")));
+  }
+
+  @Test
+  @DisplayName("include values")
+  void includeValues() {
+    final StringWriter writer = new StringWriter();
+    final JsonGenerator generator =
+        GeneratorPipeline.builder()
+            .thenApply(new ProjectingGenerator(of("a.b", "c.*.d"), true))
+            .build(createGenerator(writer));
+
+    generator.writeStartObject();
+    generator.write("a", o(f("b", v(1)), f("x", v(2))));
+    generator.write("c", a(o(f("d", v(3)), f("e", v(4))), v(5)));
+    generator.write("e", v(6));
+    generator.writeEnd();
+    generator.close();
+
+    assertEquals("{\"a\":{\"b\":1},\"c\":[{\"d\":3}]}", writer.toString());
+  }
+}
@@ -0,0 +1,88 @@
+package net.pincette.json.filter;
+
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createGenerator;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestPruningGenerator {
+  private static String prune(final String json, final PruningGenerator filter) {
+    final StringWriter writer = new StringWriter();
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder().thenApply(filter).build(createGenerator(writer));
+    final JsonParser parser = createParser(new StringReader(json));
+    final Event[] events = new Event[4];
+    final JsonValue[] values = new JsonValue[4];
+    int length;
+
+    while ((length = GeneratorPipeline.read(parser, events, values)) > 0) {
+      pipeline.write(events, values, length);
+    }
+
+    pipeline.close();
+
+    return writer.toString();
+  }
+
+  @Test
+  @DisplayName("depth")
+  void depth() {
+    assertEquals("[[[1]]]", prune("[[[1]]]", new PruningGenerator(false, 3)));
+    assertThrows(JsonException.class, () -> prune("[[[[1]]]]", new PruningGenerator(false, 3)));
+  }
+
+  @Test
+  @DisplayName("nested empty structures")
+  void nestedEmptyStructures() {
+    assertEquals(
+        "{\"e\":1,\"f\":{\"g\":[{\"h\":0}]}}",
+        prune(
+            "{\"a\":{\"b\":{},\"c\":[]},\"d\":[[],{}],\"e\":1,\"f\":{\"g\":[{},{\"h\":0},[[]]]}}",
+            new PruningGenerator()));
+    assertEquals("{}", prune("{\"a\":{\"b\":{\"c\":{}}}}", new PruningGenerator()));
+    assertEquals("[]", prune("[[],[[{}]]]", new PruningGenerator()));
+  }
+
+  @Test
+  @DisplayName("nulls")
+  void nulls() {
+    final String json = "[[],[[]],{\"a\":null,\"b\":{\"c\":null}},null]";
+
+    assertEquals("[{\"a\":null,\"b\":{\"c\":null}},null]", prune(json, new PruningGenerator()));
+    assertEquals("[null]", prune(json, new PruningGenerator(true)));
+  }
+
+  @Test
+  @DisplayName("values")
+  void values() {
+    final StringWriter writer = new StringWriter();
+    final JsonGenerator generator =
+        GeneratorPipeline.builder()
+            .thenApply(new PruningGenerator(true))
+            .build(createGenerator(writer));
+
+    generator.writeStartObject();
+    generator.write("a", o(f("b", o()), f("c", a(a(), JsonValue.NULL))));
+    generator.write("d", o(f("e", JsonValue.NULL)));
+    generator.writeKey("f");
+    generator.write(a(o(), v(1)));
+    generator.writeEnd();
+    generator.close();
+
+    assertEquals("{\"a\":{\"c\":[null]},\"f\":[1]}", writer.toString());
+  }
+}
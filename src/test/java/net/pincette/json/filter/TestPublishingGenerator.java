@@ -0,0 +1,171 @@
+package net.pincette.json.filter;
+
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import javax.json.JsonValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestPublishingGenerator {
+  private static void writeElements(final PublishingGenerator generator, final int count) {
+    for (int i = 0; i < count; ++i) {
+      generator.writeStartObject();
+      generator.write("i", v(i));
+      generator.writeStartArray("a");
+      generator.writeEnd();
+      generator.writeEnd();
+    }
+  }
+
+  @Test
+  @DisplayName("cancel")
+  void cancel() throws InterruptedException {
+    final PublishingGenerator generator = new PublishingGenerator(1);
+    final Collector collector = new Collector();
+
+    generator.subscribe(collector);
+    generator.writeStartArray();
+
+    final Thread writer = new Thread(() -> writeElements(generator, 3));
+
+    writer.start();
+    writer.join(200);
+    assertTrue(writer.isAlive());
+    collector.subscription.cancel();
+    writer.join(10000);
+    assertFalse(writer.isAlive());
+    assertTrue(collector.received.isEmpty());
+
+    final Collector late = new Collector();
+
+    generator.subscribe(late);
+    assertEquals("The subscription has been cancelled", late.error.getMessage());
+  }
+
+  @Test
+  @DisplayName("demand")
+  void demand() {
+    final PublishingGenerator generator = new PublishingGenerator(4);
+    final Collector collector = new Collector();
+    final Collector second = new Collector();
+
+    generator.subscribe(collector);
+    generator.subscribe(second);
+    assertEquals("There is already a subscriber", second.error.getMessage());
+    collector.subscription.request(1);
+    generator.writeStartArray();
+    writeElements(generator, 2);
+    generator.write(v("x"));
+    generator.writeNull();
+    assertEquals(List.of(o(f("i", v(0)), f("a", a()))), collector.received);
+    collector.subscription.request(2);
+    assertEquals(
+        List.of(o(f("i", v(0)), f("a", a())), o(f("i", v(1)), f("a", a())), v("x")),
+        collector.received);
+    generator.writeEnd();
+    assertFalse(collector.completed);
+    collector.subscription.request(1);
+    assertEquals(JsonValue.NULL, collector.received.get(3));
+    assertTrue(collector.completed);
+    assertNull(collector.error);
+  }
+
+  @Test
+  @DisplayName("request zero")
+  void requestZero() {
+    final PublishingGenerator generator = new PublishingGenerator();
+    final Collector collector = new Collector();
+
+    generator.subscribe(collector);
+    collector.subscription.request(0);
+    assertInstanceOf(IllegalArgumentException.class, collector.error);
+    generator.writeStartArray();
+    generator.write(v(1));
+    assertTrue(collector.received.isEmpty());
+  }
+
+  @Test
+  @DisplayName("subscriber")
+  void subscriber() {
+    final PublishingGenerator generator = new PublishingGenerator(2);
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final List<Long> requests = new ArrayList<>();
+    final GeneratorSubscriber subscriber = new GeneratorSubscriber(sink, 4);
+
+    generator.subscribe(
+        new Subscriber<>() {
+          public void onComplete() {
+            subscriber.onComplete();
+          }
+
+          public void onError(final Throwable throwable) {
+            subscriber.onError(throwable);
+          }
+
+          public void onNext(final JsonValue item) {
+            subscriber.onNext(item);
+          }
+
+          public void onSubscribe(final Subscription subscription) {
+            subscriber.onSubscribe(
+                new Subscription() {
+                  public void cancel() {
+                    subscription.cancel();
+                  }
+
+                  public void request(final long n) {
+                    requests.add(n);
+                    subscription.request(n);
+                  }
+                });
+          }
+        });
+    generator.writeStartArray();
+    writeElements(generator, 5);
+    generator.writeEnd();
+    assertEquals(List.of(4L, 2L, 2L), requests);
+    assertEquals(
+        a(
+            o(f("i", v(0)), f("a", a())),
+            o(f("i", v(1)), f("a", a())),
+            o(f("i", v(2)), f("a", a())),
+            o(f("i", v(3)), f("a", a())),
+            o(f("i", v(4)), f("a", a()))),
+        sink.build());
+  }
+
+  private static class Collector implements Subscriber<JsonValue> {
+    private final List<JsonValue> received = new ArrayList<>();
+    private boolean completed;
+    private Throwable error;
+    private Subscription subscription;
+
+    public void onComplete() {
+      completed = true;
+    }
+
+    public void onError(final Throwable throwable) {
+      error = throwable;
+    }
+
+    public void onNext(final JsonValue item) {
+      received.add(item);
+    }
+
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+    }
+  }
+}
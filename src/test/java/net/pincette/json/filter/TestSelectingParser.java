@@ -0,0 +1,64 @@
+package net.pincette.json.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.pincette.json.Factory.a;
+import static net.pincette.json.Factory.f;
+import static net.pincette.json.Factory.o;
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createParser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestSelectingParser {
+  private static final String JSON =
+      "{\"a\":{\"b\":[1,{\"c\":\"x\"},[2,3]],\"d\":true},\"e/f\":{\"g~h\":null},\"i\":[]}";
+
+  private static Map<String, JsonValue> select(final String json, final Set<String> paths) {
+    return new SelectingParser(createParser(new StringReader(json)), paths).select();
+  }
+
+  @Test
+  @DisplayName("arrays")
+  void arrays() {
+    assertEquals(
+        Map.of("a.b.1.c", v("x"), "/a/b/2/1", v(3), "a.b.0", v(1)),
+        select(JSON, Set.of("a.b.1.c", "/a/b/2/1", "a.b.0", "a.b.3", "i.0")));
+  }
+
+  @Test
+  @DisplayName("nested paths")
+  void nestedPaths() {
+    assertEquals(
+        Map.of(
+            "a",
+            o(f("b", a(v(1), o(f("c", v("x"))), a(v(2), v(3)))), f("d", v(true))),
+            "a.d",
+            v(true),
+            "/a/b/1/c",
+            v("x")),
+        select(JSON, Set.of("a", "a.d", "/a/b/1/c", "a.x")));
+  }
+
+  @Test
+  @DisplayName("objects")
+  void objects() {
+    assertEquals(
+        Map.of("a.d", v(true), "/e~1f/g~0h", JsonValue.NULL, "i", a()),
+        select(JSON, Set.of("a.d", "/e~1f/g~0h", "i", "x", "a.d.x")));
+  }
+
+  @Test
+  @DisplayName("stop early")
+  void stopEarly() {
+    assertEquals(
+        Map.of("/a", v(1)),
+        new SelectingParser(JacksonParser.create("{\"a\":1,\"b\":}".getBytes(UTF_8)), Set.of("/a"))
+            .select());
+  }
+}
@@ -0,0 +1,89 @@
+package net.pincette.json.filter;
+
+import static net.pincette.json.Factory.v;
+import static net.pincette.json.JsonUtil.createParser;
+import static net.pincette.json.JsonUtil.createReader;
+import static net.pincette.json.Transform.removeTransformer;
+import static net.pincette.json.Transform.setTransformer;
+import static net.pincette.json.Transform.transform;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.util.Optional;
+import java.util.function.Predicate;
+import javax.json.JsonNumber;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import net.pincette.json.Transform.JsonEntry;
+import net.pincette.json.Transform.Transformer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestTransformingGenerator {
+  private static final String ARRAY =
+      "[{\"a\":{\"b\":1,\"x\":2},\"e\":{\"f\":3}},4,[{\"c\":{\"d\":5}}],{\"x\":[6,{\"x\":7}]}]";
+  private static final String OBJECT =
+      "{\"a\":{\"b\":1,\"x\":2,\"g\":[1,{\"b\":2}]},\"c\":{\"d\":{\"x\":3}},\"e\":{\"f\":[]},"
+          + "\"x\":[{\"x\":4},5,[6]],\"h\":null,\"i\":\"s\"}";
+
+  private static final Transformer TRANSFORMER =
+      removeTransformer("a.b")
+          .thenApply(setTransformer("c.d", v(true)))
+          .thenApply(removeTransformer("e"))
+          .thenApply(
+              new Transformer(
+                  e -> e.value instanceof JsonNumber,
+                  e ->
+                      Optional.of(new JsonEntry(e.path, v(((JsonNumber) e.value).intValue() * 2)))))
+          .thenApply(
+              new Transformer(
+                  e -> e.path.endsWith("x"),
+                  e -> Optional.of(new JsonEntry(e.path.replaceAll("x$", "y"), e.value))));
+
+  /** The paths of the structures the transformers may match. */
+  private static boolean matched(final String path) {
+    return path.equals("c.d") || path.equals("e") || path.endsWith("x");
+  }
+
+  private static JsonStructure read(final String json) {
+    return createReader(new StringReader(json)).read();
+  }
+
+  private static JsonStructure stream(final String json, final Predicate<String> materialize) {
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final GeneratorPipeline pipeline =
+        GeneratorPipeline.builder()
+            .thenApply(new TransformingGenerator(TRANSFORMER, materialize))
+            .build(sink);
+    final JsonParser parser = createParser(new StringReader(json));
+    final Event[] events = new Event[5];
+    final JsonValue[] values = new JsonValue[5];
+    int length;
+
+    while ((length = GeneratorPipeline.read(parser, events, values)) > 0) {
+      pipeline.write(events, values, length);
+    }
+
+    return sink.build();
+  }
+
+  @Test
+  @DisplayName("array")
+  void array() {
+    final JsonStructure expected = transform(read(ARRAY), TRANSFORMER);
+
+    assertEquals(expected, stream(ARRAY, TestTransformingGenerator::matched));
+    assertEquals(expected, stream(ARRAY, path -> true));
+  }
+
+  @Test
+  @DisplayName("object")
+  void object() {
+    final JsonStructure expected = transform(read(OBJECT), TRANSFORMER);
+
+    assertEquals(expected, stream(OBJECT, TestTransformingGenerator::matched));
+    assertEquals(expected, stream(OBJECT, path -> true));
+  }
+}
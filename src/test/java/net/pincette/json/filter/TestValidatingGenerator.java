@@ -0,0 +1,123 @@
+package net.pincette.json.filter;
+
+import static javax.json.JsonValue.TRUE;
+import static net.pincette.json.JsonUtil.createParser;
+import static net.pincette.json.JsonUtil.createReader;
+import static net.pincette.json.JsonUtil.isArray;
+import static net.pincette.json.JsonUtil.isObject;
+import static net.pincette.json.Validate.ERROR;
+import static net.pincette.json.Validate.MESSAGE;
+import static net.pincette.json.Validate.VALUE;
+import static net.pincette.json.Validate.validate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import net.pincette.json.Validate;
+import net.pincette.json.Validate.ValidationContext;
+import net.pincette.json.Validate.ValidationError;
+import net.pincette.json.Validate.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestValidatingGenerator {
+  private static final ValidationContext CONTEXT = new ValidationContext(null, null);
+  private static final Set<String> MANDATORY = Set.of("a.b", "a.z", "c.d", "g");
+  private static final Map<String, String> MESSAGES = Map.of("a.b", "Not a number");
+  private static final String MISSING = "Missing";
+  private static final Map<String, Validator> VALIDATORS =
+      Map.of(
+          "a.b", Validate::isNumber,
+          "c", Validate::isObject,
+          "c.d", Validate::isString,
+          "e.f", Validate::isString,
+          "h", Validate::isString);
+
+  /** Collects the errors from an annotated copy. */
+  private static void errors(final String path, final JsonValue value, final List<String> result) {
+    if (isObject(value)) {
+      final JsonObject object = value.asJsonObject();
+
+      if (object.containsKey(MESSAGE)
+          && Set.of(ERROR, MESSAGE, VALUE).containsAll(object.keySet())) {
+        result.add(path + ": " + object.getString(MESSAGE));
+      } else {
+        object.entrySet().stream()
+            .filter(e -> !e.getKey().equals(ERROR))
+            .forEach(
+                e ->
+                    errors(
+                        path != null ? (path + "." + e.getKey()) : e.getKey(),
+                        e.getValue(),
+                        result));
+      }
+    } else if (isArray(value)) {
+      value.asJsonArray().forEach(v -> errors(path, v, result));
+    }
+  }
+
+  private static List<String> expected(final String json) {
+    final List<String> result = new ArrayList<>();
+
+    errors(null, validate(read(json), CONTEXT, VALIDATORS, MESSAGES, MANDATORY, MISSING), result);
+
+    return result.stream().sorted().toList();
+  }
+
+  private static JsonStructure read(final String json) {
+    return createReader(new StringReader(json)).read();
+  }
+
+  private static void compare(final String json) {
+    final JsonTreeGenerator sink = new JsonTreeGenerator();
+    final ValidatingGenerator validating =
+        new ValidatingGenerator(CONTEXT, VALIDATORS, MESSAGES, MANDATORY, MISSING, false);
+    final List<String> expected = expected(json);
+
+    assertFalse(expected.isEmpty());
+    validating.thenApply(sink);
+    validating.validate(createParser(new StringReader(json)));
+
+    assertEquals(
+        expected, validating.getErrors().stream().map(ValidationError::toString).sorted().toList());
+    assertEquals(read(json), sink.build());
+  }
+
+  @Test
+  @DisplayName("array")
+  void array() {
+    compare(
+        "[{\"a\":{\"b\":1,\"z\":0},\"c\":{\"d\":\"x\"},\"g\":1},"
+            + "{\"a\":{\"b\":\"x\"},\"c\":[],\"e\":[{\"f\":2}],\"g\":null},[{\"h\":{}}]]");
+  }
+
+  @Test
+  @DisplayName("object")
+  void object() {
+    compare(
+        "{\"a\":{\"b\":\"x\",\"y\":{\"b\":true}},\"c\":{\"d\":1,\"e\":{\"f\":3}},"
+            + "\"e\":[{\"f\":1},{\"f\":\"x\"},[{\"f\":false}]],\"h\":{\"x\":1},\"i\":[1,{}]}");
+  }
+
+  @Test
+  @DisplayName("stop at first error")
+  void stopAtFirstError() {
+    final ValidatingGenerator validating =
+        new ValidatingGenerator(CONTEXT, VALIDATORS, MESSAGES, MANDATORY, MISSING, true);
+    final List<ValidationError> errors =
+        validating.validate(
+            createParser(
+                new StringReader("{\"a\":{\"b\":\"x\",\"z\":0},\"c\":{\"d\":1},\"g\":1}")));
+
+    assertEquals(1, errors.size());
+    assertEquals("a.b: Not a number", errors.get(0).toString());
+    assertEquals(TRUE, errors.get(0).toJson().get(ERROR));
+  }
+}
@@ -0,0 +1,39 @@
+package net.pincette.json.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.spi.JsonProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestShape {
+  @Test
+  @DisplayName("bounded")
+  void bounded() {
+    final JsonProvider provider = new CompactProvider();
+    final Random random = new Random(0);
+
+    for (int i = 0; i < 20000; ++i) {
+      final JsonObjectBuilder builder = provider.createObjectBuilder();
+
+      for (int j = 0; j < 40; ++j) {
+        builder.add("k" + random.nextInt(200), j);
+      }
+
+      final JsonObject object = builder.build();
+
+      assertEquals(object.size(), object.keySet().size());
+    }
+
+    assertEquals(Shape.MAX_SHAPES, Shape.registered());
+
+    final String[] keys = {"x1", "x2", "x3"};
+
+    Shape.of(keys, keys.length);
+
+    assertEquals(Shape.MAX_SHAPES, Shape.registered());
+  }
+}